@@ -0,0 +1,60 @@
+package com.aivle.cosy.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * log 테이블의 (product_id, country) unique 키 보장.
+ * 분석 기록 upsert(ON DUPLICATE KEY UPDATE)는 이 키가 있어야 동작하므로,
+ * 키가 없으면 같은 제품+국가의 중복 행 중 가장 최근 행만 남기고 키를 추가하며, 추가하지 못하면 기동을 중단한다.
+ * 스키마 생성(Hibernate DDL) 이후에 실행되도록 entityManagerFactory 뒤에 초기화된다.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class LogUniqueKeyMigration {
+    static final String INDEX_NAME = "uk_log_product_country";
+
+    private static final String INDEX_EXISTS =
+            "select count(*) from information_schema.statistics "
+                    + "where table_schema = database() and table_name = 'log' and index_name = ?";
+
+    // 같은 (product_id, country)에 더 최근 행(upd_date, 같으면 log_id 기준)이 있는 행 삭제
+    private static final String DELETE_DUPLICATES =
+            "delete l from log l join log newer on newer.product_id = l.product_id and newer.country = l.country "
+                    + "and (coalesce(newer.upd_date, '1000-01-01'), newer.log_id) "
+                    + "> (coalesce(l.upd_date, '1000-01-01'), l.log_id)";
+
+    private static final String ADD_INDEX =
+            "alter table log add constraint " + INDEX_NAME + " unique (product_id, country)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        if (indexExists()) return;
+
+        try {
+            Integer removed = transactionTemplate.execute(status -> jdbcTemplate.update(DELETE_DUPLICATES));
+            jdbcTemplate.execute(ADD_INDEX);
+            log.info("log 중복 행 {}건을 정리하고 {} 키를 추가했습니다.", removed, INDEX_NAME);
+        } catch (Exception e) {
+            throw new IllegalStateException("log 테이블에 " + INDEX_NAME + " 키를 만들 수 없습니다.", e);
+        }
+        if (!indexExists()) {
+            throw new IllegalStateException("log 테이블에 " + INDEX_NAME + " 키가 없습니다.");
+        }
+    }
+
+    private boolean indexExists() {
+        Long count = jdbcTemplate.queryForObject(INDEX_EXISTS, Long.class, INDEX_NAME);
+        return count != null && count > 0;
+    }
+}
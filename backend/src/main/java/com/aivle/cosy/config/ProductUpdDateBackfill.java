@@ -0,0 +1,42 @@
+package com.aivle.cosy.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * products.upd_date가 null인 기존 행 보정.
+ * 제품 목록 키셋 페이지네이션은 (upd_date desc, id desc) 기준이라 upd_date가 null이면
+ * 커서를 만들 수 없고 커서 조건(upd_date < ?)으로도 닿지 않으므로, 기동 시 reg_date(없으면 현재 시각)로 채우고 NOT NULL로 바꾼다.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class ProductUpdDateBackfill {
+    private static final String BACKFILL =
+            "update products set upd_date = coalesce(reg_date, now(6)) where upd_date is null";
+
+    private static final String IS_NULLABLE =
+            "select count(*) from information_schema.columns where table_schema = database() "
+                    + "and table_name = 'products' and column_name = 'upd_date' and is_nullable = 'YES'";
+
+    private static final String SET_NOT_NULL = "alter table products modify upd_date datetime(6) not null";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void backfill() {
+        int updated = jdbcTemplate.update(BACKFILL);
+        if (updated > 0) {
+            log.info("upd_date가 없는 제품 {}건을 reg_date로 채웠습니다.", updated);
+        }
+        Long nullable = jdbcTemplate.queryForObject(IS_NULLABLE, Long.class);
+        if (nullable != null && nullable > 0) {
+            jdbcTemplate.execute(SET_NOT_NULL);
+        }
+    }
+}
@@ -1,12 +1,19 @@
 package com.aivle.cosy.config;
 
+import java.net.URI;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 @Configuration
 public class S3Config {
@@ -20,12 +27,57 @@ public class S3Config {
     @Value("${cloud.aws.region}")
     private String region;
 
+    // 로컬 S3 대체 서버(MinIO, LocalStack 등) 주소, 비어있으면 AWS 사용
+    @Value("${cloud.aws.s3.endpoint:}")
+    private String endpoint;
+
+    // 이 크기 이상이면 멀티파트 업로드
+    @Value("${cloud.aws.s3.multipart-threshold-bytes:8388608}")
+    private long multipartThresholdBytes;
+
+    @Value("${cloud.aws.s3.multipart-part-size-bytes:8388608}")
+    private long multipartPartSizeBytes;
+
     @Bean
     public S3Client s3Client() {
         AwsBasicCredentials creds = AwsBasicCredentials.create(accessKey, secretKey);
-        return S3Client.builder()
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(StaticCredentialsProvider.create(creds));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public S3AsyncClient s3AsyncClient() {
+        AwsBasicCredentials creds = AwsBasicCredentials.create(accessKey, secretKey);
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
                 .region(Region.of(region))
                 .credentialsProvider(StaticCredentialsProvider.create(creds))
-                .build();
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(multipartThresholdBytes)
+                        .minimumPartSizeInBytes(multipartPartSizeBytes)
+                        .build());
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        return builder.build();
+    }
+
+    // 클라이언트가 버킷에 직접 업로드할 presigned URL 발급용
+    @Bean
+    public S3Presigner s3Presigner() {
+        AwsBasicCredentials creds = AwsBasicCredentials.create(accessKey, secretKey);
+        S3Presigner.Builder builder = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(StaticCredentialsProvider.create(creds));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint))
+                    .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build());
+        }
+        return builder.build();
     }
 }
@@ -1,14 +1,22 @@
 package com.aivle.cosy.config;
 
 import com.aivle.cosy.service.TokenBlacklistService;
+import com.aivle.cosy.service.TokenGenerationService;
+import com.aivle.cosy.security.AuthRateLimitFilter;
+import com.aivle.cosy.security.AuthRateLimiter;
 import com.aivle.cosy.security.JwtFilter;
 import com.aivle.cosy.security.JwtTokenProvider;
+import jakarta.servlet.DispatcherType;
+import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -22,15 +30,28 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 public class WebSecurityConfig {
     private final JwtTokenProvider jwtProvider;
     private final TokenBlacklistService tokenBlacklistService;
+    private final TokenGenerationService tokenGenerationService;
+    private final AuthRateLimiter authRateLimiter;
+
+    // X-Real-IP를 믿을 프록시 주소 (쉼표 구분, 비우면 loopback/사설망 주소)
+    @Value("${auth.rate-limit.trusted-proxies:}")
+    private Set<String> trustedProxies;
 
      @Bean
      public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+       // 인증 API rate limit은 토큰 검증보다 먼저 수행
+       http.addFilterBefore(
+         new AuthRateLimitFilter(authRateLimiter, trustedProxies),
+         UsernamePasswordAuthenticationFilter.class
+       );
        http.addFilterBefore(
-         new JwtFilter(jwtProvider,tokenBlacklistService),
+         new JwtFilter(jwtProvider,tokenBlacklistService,tokenGenerationService),
          UsernamePasswordAuthenticationFilter.class
        );
 
        http.authorizeHttpRequests(auth -> auth
+         // 스트리밍 응답(내보내기, SSE)의 비동기 재디스패치는 최초 요청에서 이미 인증됨
+         .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
          .requestMatchers("/api/auth/login", "/login", "/api/data","/api/auth/signup","/api/auth/refresh","/api/auth/logout","/api/health").permitAll()
          .anyRequest().authenticated()
        );
@@ -42,9 +63,13 @@ public class WebSecurityConfig {
      }
 
 
+    // {bcrypt} 접두사 형식으로 저장, 접두사 없는 기존 해시나 cost가 낮은 해시는 로그인 성공 시 재해싱됨
     @Bean
-     public PasswordEncoder passwordEncoder() {
-       return new BCryptPasswordEncoder();
+     public PasswordEncoder passwordEncoder(@Value("${password.bcrypt-strength:10}") int strength) {
+       BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+       DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+       encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+       return encoder;
      }
 
      @Bean
@@ -4,7 +4,8 @@ import com.aivle.cosy.domain.Log;
 import com.aivle.cosy.dto.DashboardResponse;
 import com.aivle.cosy.repository.LogRepository;
 import com.aivle.cosy.repository.ProductRepository;
-import com.aivle.cosy.security.JwtTokenProvider;
+import com.aivle.cosy.security.AuthUser;
+import com.aivle.cosy.security.LoginUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -21,14 +22,12 @@ import java.util.List;
 public class DashboardController {
     private final ProductRepository productRepository;
     private final LogRepository logRepository;
-    private final JwtTokenProvider tokenProvider;
 
     @GetMapping("/stats")
     public ResponseEntity<DashboardResponse> getStats(
-        @RequestHeader("Authorization") String bearerToken) {
+        @LoginUser AuthUser user) {
 
-        String token = bearerToken.substring(7);
-        Long companyId = tokenProvider.getCompanyId(token);
+        Long companyId = user.companyId();
 
         // 전체 제품 개수
         long productCount = productRepository.countByCompanyId(companyId);
@@ -0,0 +1,25 @@
+package com.aivle.cosy.controller;
+
+import com.aivle.cosy.security.AuthUser;
+import com.aivle.cosy.security.LoginUser;
+import com.aivle.cosy.service.ChangeEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin(origins = "http://localhost:5173")
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventController {
+    private final ChangeEventService changeEventService;
+
+    // 회사 단위 변경 알림 구독 (LOG_UPDATED, PRODUCT_* 이벤트, data는 ChangeEvent JSON)
+    // 대시보드/기록 탭은 폴링 대신 알림을 받은 제품/국가만 다시 조회
+    // 인증은 Authorization 헤더라 EventSource 대신 fetch 기반 SSE 클라이언트로 연결해야 함
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@LoginUser AuthUser user) {
+        return changeEventService.subscribe(user.companyId());
+    }
+}
@@ -1,17 +1,29 @@
 package com.aivle.cosy.controller;
 
 import com.aivle.cosy.domain.Log;
+import com.aivle.cosy.dto.LogBatchResponse;
+import com.aivle.cosy.dto.LogPageResponse;
 import com.aivle.cosy.dto.LogRequest;
 import com.aivle.cosy.dto.LogResponse;
+import com.aivle.cosy.dto.LogSearchRequest;
+import com.aivle.cosy.dto.PrescreenRequest;
+import com.aivle.cosy.dto.PrescreenResponse;
+import com.aivle.cosy.exception.BusinessException;
+import com.aivle.cosy.exception.CommonErrorCode;
+import com.aivle.cosy.service.ExportService;
 import com.aivle.cosy.service.LogService;
-import com.aivle.cosy.security.JwtTokenProvider;
+import com.aivle.cosy.security.AuthUser;
+import com.aivle.cosy.security.LoginUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @CrossOrigin(origins = "http://localhost:5173")
@@ -20,52 +32,109 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class LogController {
     private final LogService logService;
-    private final JwtTokenProvider tokenProvider;
+    private final ExportService exportService;
 
     @PostMapping
     public ResponseEntity<String> saveOrUpdate(
-            @RequestHeader(value = "Authorization") String bearerToken,
+            @LoginUser AuthUser user,
             @RequestBody LogRequest request) {
+        if (logService.upsertLog(user.companyId(), request)) {
+            return ResponseEntity.accepted().body("기록 요청이 접수되었습니다.");
+        }
+        return ResponseEntity.ok("기록이 최신 상태로 저장되었습니다.");
+    }
 
-        String token = bearerToken.substring(7);
-        Long companyId = tokenProvider.getCompanyId(token);
+    // 여러 제품/국가의 분석 결과를 한 번에 기록 (항목별 결과 반환)
+    @PostMapping("/batch")
+    public ResponseEntity<LogBatchResponse> saveOrUpdateBatch(
+            @LoginUser AuthUser user,
+            @RequestBody List<LogRequest> requests) {
+        return ResponseEntity.ok(logService.upsertLogs(user.companyId(), requests));
+    }
 
-        logService.upsertLog(companyId, request);
-        return ResponseEntity.ok("기록이 최신 상태로 저장되었습니다.");
+    // write-behind 버퍼에 남은 회사 기록을 모두 반영 (반영되면 204)
+    @PostMapping("/flush")
+    public ResponseEntity<Void> flush(@LoginUser AuthUser user) {
+        logService.awaitPendingWrites(user.companyId());
+        return ResponseEntity.noContent().build();
     }
 
+    // 전성분 사전 검사 (금지/제한 원료 목록 기준 잠정 결과)
+    @PostMapping("/prescreen")
+    public ResponseEntity<List<PrescreenResponse>> prescreen(@RequestBody PrescreenRequest request) {
+        return ResponseEntity.ok(logService.prescreen(request));
+    }
+
+    // 조회 API는 write-behind 버퍼에 남은 자기 회사 기록을 먼저 반영한 뒤 읽음 (read-your-writes)
     @GetMapping("/ingredient")
-    public ResponseEntity<List<LogResponse>> getIngredients(@RequestHeader("Authorization") String token) {
-        Long companyId = tokenProvider.getCompanyId(token.substring(7));
-        return ResponseEntity.ok(logService.getIngredientLogsByCompany(companyId).stream()
-                .filter(log -> log.getIngredientStatus() != null)
-                .map(LogResponse::new).collect(Collectors.toList()));
+    public ResponseEntity<List<LogResponse>> getIngredients(@LoginUser AuthUser user) {
+        logService.awaitPendingWrites(user.companyId());
+        return ResponseEntity.ok(logService.getIngredientLogsByCompany(user.companyId()));
+    }
+
+    // 성분 탭 페이지 조회 (size 파라미터가 있으면 키셋 페이지네이션)
+    // 예: /api/log/ingredient?size=20&cursor=...&country=US&status=HIGH&productId=1&updatedSince=2026-01-01T00:00:00
+    @GetMapping(value = "/ingredient", params = "size")
+    public ResponseEntity<LogPageResponse<LogPageResponse.IngredientItem>> getIngredientPage(
+            @LoginUser AuthUser user, @ModelAttribute LogSearchRequest search) {
+        logService.awaitPendingWrites(user.companyId());
+        return ResponseEntity.ok(logService.getIngredientLogPage(user.companyId(), search));
     }
 
     @GetMapping("/ingredient/{country}")
     public ResponseEntity<List<LogResponse>> getIngredientsByCountry(
-            @RequestHeader("Authorization") String token, @PathVariable String country) {
-        Long companyId = tokenProvider.getCompanyId(token.substring(7));
-        return ResponseEntity.ok(logService.getIngredientLogsByCountry(companyId, country).stream()
-                .filter(log -> log.getIngredientStatus() != null)
-                .map(LogResponse::new).collect(Collectors.toList()));
+            @LoginUser AuthUser user, @PathVariable String country) {
+        logService.awaitPendingWrites(user.companyId());
+        return ResponseEntity.ok(logService.getIngredientLogsByCountry(user.companyId(), country));
     }
 
     // 2. 문구 탭 데이터 조회
     @GetMapping("/marketing")
-    public ResponseEntity<List<LogResponse>> getMarketings(@RequestHeader("Authorization") String token) {
-        Long companyId = tokenProvider.getCompanyId(token.substring(7));
-        return ResponseEntity.ok(logService.getMarketingLogsByCompany(companyId).stream()
-                .filter(log -> log.getMarketingStatus() != null)
-                .map(LogResponse::new).collect(Collectors.toList()));
+    public ResponseEntity<List<LogResponse>> getMarketings(@LoginUser AuthUser user) {
+        logService.awaitPendingWrites(user.companyId());
+        return ResponseEntity.ok(logService.getMarketingLogsByCompany(user.companyId()));
+    }
+
+    // 문구 탭 페이지 조회 (조건은 성분 탭과 동일, status는 문구 분석 상태)
+    @GetMapping(value = "/marketing", params = "size")
+    public ResponseEntity<LogPageResponse<LogPageResponse.MarketingItem>> getMarketingPage(
+            @LoginUser AuthUser user, @ModelAttribute LogSearchRequest search) {
+        logService.awaitPendingWrites(user.companyId());
+        return ResponseEntity.ok(logService.getMarketingLogPage(user.companyId(), search));
     }
 
     @GetMapping("/marketing/{country}")
     public ResponseEntity<List<LogResponse>> getMarketingsByCountry(
-            @RequestHeader("Authorization") String token, @PathVariable String country) {
-        Long companyId = tokenProvider.getCompanyId(token.substring(7));
-        return ResponseEntity.ok(logService.getMarketingLogsByCountry(companyId, country).stream()
-                .filter(log -> log.getMarketingStatus() != null)
-                .map(LogResponse::new).collect(Collectors.toList()));
+            @LoginUser AuthUser user, @PathVariable String country) {
+        logService.awaitPendingWrites(user.companyId());
+        return ResponseEntity.ok(logService.getMarketingLogsByCountry(user.companyId(), country));
+    }
+
+    // 분석 기록 전체 내보내기 (감사 제출용, 행 단위 스트리밍)
+    // 예: /api/log/export?format=ndjson&gzip=true&country=EU&updatedSince=2026-01-01T00:00:00
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @LoginUser AuthUser user,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince) {
+        ExportService.Format exportFormat = ExportService.Format.from(format);
+        Log.Country exportCountry = parseCountry(country);
+        logService.awaitPendingWrites(user.companyId());
+        Long companyId = user.companyId();
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType(gzip))
+                .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.contentDisposition("logs", gzip))
+                .body(out -> exportService.exportLogs(companyId, exportCountry, updatedSince, exportFormat, gzip, out));
+    }
+
+    private static Log.Country parseCountry(String country) {
+        if (country == null || country.isBlank()) return null;
+        try {
+            return Log.Country.valueOf(country.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(CommonErrorCode.INVALID_PARAMETER, "country 값이 올바르지 않습니다: " + country);
+        }
     }
 }
@@ -2,16 +2,23 @@ package com.aivle.cosy.controller;
 
 import com.aivle.cosy.dto.ProductRequest;
 import com.aivle.cosy.dto.ProductResponse;
+import com.aivle.cosy.service.ExportService;
+import com.aivle.cosy.service.ProductImportService;
 import com.aivle.cosy.service.ProductService;
-import com.aivle.cosy.security.JwtTokenProvider;
+import com.aivle.cosy.security.AuthUser;
+import com.aivle.cosy.security.LoginUser;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 
 @Slf4j
@@ -21,61 +28,118 @@ import java.util.List;
 @RequestMapping("/api/products")
 public class ProductController {
     private final ProductService productService;
-    private final JwtTokenProvider tokenProvider;
+    private final ProductImportService productImportService;
+    private final ExportService exportService;
 
     // 전 제품 불러오기
     @GetMapping
     public ResponseEntity<List<ProductResponse.DetailResponse>> getMyCompanyProducts(
-            @RequestHeader("Authorization") String bearerToken) {
-        String token = bearerToken.substring(7);
-        Long companyId = tokenProvider.getCompanyId(token);
+            @LoginUser AuthUser user) {
+        return ResponseEntity.ok(productService.getProducts(user.companyId()));
+    }
+
+    // 제품 목록 페이지 조회 (size 파라미터가 있으면 키셋 페이지네이션)
+    // 예: /api/products?size=20&cursor=...&type=SKINCARE&status=STEP_1&includeIngredient=false
+    @GetMapping(params = "size")
+    public ResponseEntity<ProductResponse.PageResponse> getMyCompanyProductPage(
+            @LoginUser AuthUser user,
+            @ModelAttribute ProductRequest.SearchRequest search) {
+        return ResponseEntity.ok(productService.getProductPage(user.companyId(), search));
+    }
+
+    // 특정 성분이 들어간 제품 조회
+    // 예: /api/products/search/ingredient?name=나이아신아마이드
+    @GetMapping("/search/ingredient")
+    public ResponseEntity<List<ProductResponse.DetailResponse>> getProductsByIngredient(
+            @LoginUser AuthUser user,
+            @RequestParam String name) {
+        return ResponseEntity.ok(productService.getProductsByIngredient(user.companyId(), name));
+    }
 
-        return ResponseEntity.ok(productService.getProducts(companyId));
+    // 배합이 비슷한 분석 완료 제품의 결과 제안 (없으면 204)
+    @GetMapping("/{id}/similar-analysis")
+    public ResponseEntity<ProductResponse.SimilarAnalysisResponse> getSimilarAnalysis(
+            @LoginUser AuthUser user,
+            @PathVariable Long id) {
+        ProductResponse.SimilarAnalysisResponse response = productService.getSimilarAnalysis(id, user.companyId());
+        return response == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(response);
     }
 
     // 제품 생성
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ProductResponse.CreateResponse> createProduct(
-            @RequestHeader("Authorization") String bearerToken,
+            @LoginUser AuthUser user,
             @RequestPart("data") ProductRequest.SaveRequest request,
             @RequestPart(value = "image", required = false) MultipartFile imageFile) {
-        Long companyId = tokenProvider.getCompanyId(bearerToken.substring(7));
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(productService.createProduct(companyId, request, imageFile));
+                .body(productService.createProduct(user.companyId(), request, imageFile));
+    }
+
+    // 제품 대량 가져오기 (text/csv 또는 application/x-ndjson 본문을 스트리밍으로 처리)
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ProductResponse.ImportResponse> importProducts(
+            @LoginUser AuthUser user,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(productImportService.importProducts(
+                user.companyId(), request.getInputStream(), ProductImportService.Format.from(contentType)));
+    }
+
+    // 제품 전체 내보내기 (가져오기와 같은 형식, 행 단위 스트리밍)
+    // 예: /api/products/export?format=csv&gzip=true
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @LoginUser AuthUser user,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportService.Format exportFormat = ExportService.Format.from(format);
+        Long companyId = user.companyId();
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType(gzip))
+                .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.contentDisposition("products", gzip))
+                .body(out -> exportService.exportProducts(companyId, exportFormat, gzip, out));
     }
 
     // 제품 수정
     @PatchMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ProductResponse.MessageResponse> patchProduct(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String bearerToken,
+            @LoginUser AuthUser user,
             @RequestPart("data") ProductRequest.SaveRequest request,
             @RequestPart(value = "image", required = false) MultipartFile imageFile) {
-        String token = bearerToken.substring(7);
-        Long companyId = tokenProvider.getCompanyId(token);
+        return ResponseEntity.ok(productService.updateProduct(id, user.companyId(), request, imageFile));
+    }
 
-        return ResponseEntity.ok(productService.updateProduct(id, companyId, request, imageFile));
+
+    // 이미지 직접 업로드용 presigned URL 발급
+    @PostMapping("/images/presign")
+    public ResponseEntity<ProductResponse.PresignResponse> presignImageUpload(
+            @LoginUser AuthUser user,
+            @RequestBody ProductRequest.PresignRequest request) {
+        return ResponseEntity.ok(productService.createImageUploadUrl(user.companyId(), request));
     }
 
+    // 직접 업로드한 이미지를 제품에 연결
+    @PostMapping("/{id}/image/confirm")
+    public ResponseEntity<ProductResponse.MessageResponse> confirmImage(
+            @PathVariable Long id,
+            @LoginUser AuthUser user,
+            @RequestBody ProductRequest.ConfirmImageRequest request) {
+        return ResponseEntity.ok(productService.confirmImage(id, user.companyId(), request));
+    }
 
     // 제품 삭제
     @DeleteMapping("/{id}")
     public ResponseEntity<ProductResponse.MessageResponse> deleteProduct(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String bearerToken){
-        String token = bearerToken.substring(7);
-        Long companyId = tokenProvider.getCompanyId(token);
-
-        return ResponseEntity.ok(productService.deleteProduct(id, companyId));
+            @LoginUser AuthUser user){
+        return ResponseEntity.ok(productService.deleteProduct(id, user.companyId()));
     }
 
     @DeleteMapping("/batch")
     public ResponseEntity<ProductResponse.MessageResponse> deleteMultipleProducts(
-            @RequestHeader("Authorization") String bearerToken,
+            @LoginUser AuthUser user,
             @RequestBody List<Long> ids) {
-        String token = bearerToken.substring(7);
-        Long companyId = tokenProvider.getCompanyId(token);
-
-        return ResponseEntity.ok(productService.deleteMultipleProducts(ids, companyId));
+        return ResponseEntity.ok(productService.deleteMultipleProducts(ids, user.companyId()));
     }
 }
@@ -1,18 +1,17 @@
 package com.aivle.cosy.controller;
 
 import com.aivle.cosy.dto.ChangePasswordRequest;
+import com.aivle.cosy.security.AuthUser;
+import com.aivle.cosy.security.LoginUser;
 import com.aivle.cosy.service.AuthService;
 import com.aivle.cosy.service.UserService;
 import com.aivle.cosy.util.CookieUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -25,15 +24,8 @@ public class UserProfileController {
 
     //유저 삭제
     @DeleteMapping("")
-    public ResponseEntity<Void> delete(@RequestHeader("Authorization") String token,
-                                       @CookieValue(name = "refresh_token", required = false) String refreshToken) {
-        if (token == null || !token.startsWith("Bearer ")) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-
-        String accessToken = token.substring(7);
-
-        userService.deleteUser(accessToken, refreshToken);
+    public ResponseEntity<Void> delete(@LoginUser AuthUser user) {
+        userService.deleteUser(user.email());
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.SET_COOKIE, CookieUtils.clearRefreshTokenCookie().toString())
@@ -42,16 +34,19 @@ public class UserProfileController {
 
     // 비밀번호 변경
     @PatchMapping("/password")
-    public ResponseEntity<Void> password(@RequestHeader("Authorization") String token,
-                                         @CookieValue(name = "refresh_token", required = false) String refreshToken,
+    public ResponseEntity<Void> password(@LoginUser AuthUser user,
                                          @RequestBody ChangePasswordRequest request) {
-        if (token == null || !token.startsWith("Bearer ")) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
+        authService.changePassword(user.email(), request);
 
-        String accessToken = token.substring(7);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, CookieUtils.clearRefreshTokenCookie().toString())
+                .build();
+    }
 
-        authService.changePassword(accessToken, refreshToken, request);
+    // 모든 기기에서 로그아웃
+    @DeleteMapping("/sessions")
+    public ResponseEntity<Void> logoutAll(@LoginUser AuthUser user) {
+        authService.logoutAll(user.email());
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.SET_COOKIE, CookieUtils.clearRefreshTokenCookie().toString())
@@ -0,0 +1,48 @@
+package com.aivle.cosy.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 성분 규제 분석 결과 캐시.
+ * (국가, 배합 해시) 단위로 마지막 분석 결과를 보관해 같은 배합의 제품은 LLM 분석 없이 Log를 채운다.
+ * 배합 해시는 정규화한 성분 대표명을 정렬해 계산하므로 표기/순서가 달라도 같은 배합이면 같은 값이다.
+ */
+@Entity
+@Table(name = "compliance_results", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_compliance_results_country_hash", columnNames = {"country", "ingredient_hash"})
+}, indexes = {
+        @Index(name = "idx_compliance_results_hash", columnList = "ingredient_hash")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ComplianceResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "country", nullable = false, length = 10)
+    private Log.Country country;
+
+    @Column(name = "ingredient_hash", nullable = false, length = 64)
+    private String ingredientHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ingredient_status", length = 20)
+    private Log.ApprovalStatus ingredientStatus;
+
+    @Column(name = "cautious_ingredient", columnDefinition = "TEXT")
+    private String cautiousIngredient;
+
+    @Column(name = "ingredient_law", columnDefinition = "TEXT")
+    private String ingredientLaw;
+
+    @UpdateTimestamp
+    @Column(name = "upd_date")
+    private LocalDateTime updDate;
+}
@@ -0,0 +1,39 @@
+package com.aivle.cosy.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 내용 주소(SHA-256) 기반으로 저장된 이미지 객체와 참조 수.
+ * 같은 이미지를 여러 제품이 쓰면 S3 객체는 하나만 두고 ref_count만 늘린다.
+ * ref_count가 0이 되어도 행은 남겨 두고 S3 객체 삭제를 outbox에 기록하며,
+ * outbox relay가 이 행을 잠근 채 여전히 0인지 다시 확인하고 S3 객체(변환본 포함)와 행을 함께 지운다.
+ * 그동안 같은 이미지에 대한 acquire는 행 잠금에서 기다리므로 삭제 확인과 실제 삭제 사이에 다시 참조될 수 없다.
+ */
+@Entity
+@Table(name = "image_objects", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_image_objects_object_key", columnNames = "object_key")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ImageObject {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "object_key", nullable = false, length = 512)
+    private String objectKey;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    // S3에 실제로 올라가 있는지 (false면 첫 업로드 진행 중)
+    @Column(name = "uploaded", nullable = false)
+    private boolean uploaded;
+
+    @Column(name = "reg_date", nullable = false, updatable = false)
+    private LocalDateTime regDate;
+}
@@ -0,0 +1,28 @@
+package com.aivle.cosy.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 성분 사전 (정규화된 대표명 하나당 한 행)
+ */
+@Entity
+@Table(name = "ingredients", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ingredients_name", columnNames = "name")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class Ingredient {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "name", nullable = false, length = 255)
+    private String name;
+
+    @Column(name = "reg_date", nullable = false, updatable = false)
+    private LocalDateTime regDate;
+}
@@ -7,7 +7,14 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Log")
+@Table(name = "Log", uniqueConstraints = {
+        // 제품+국가당 기록 하나 (upsert 기준 키, 기존 중복 행은 기동 시 LogUniqueKeyMigration이 정리)
+        @UniqueConstraint(name = "uk_log_product_country", columnNames = {"product_id", "country"})
+}, indexes = {
+        // 기록 목록 키셋 페이지네이션 (company_id, updDate desc, logId desc), 국가 필터
+        @Index(name = "idx_log_company_upd_date", columnList = "company_id, updDate, logId"),
+        @Index(name = "idx_log_company_country_upd_date", columnList = "company_id, country, updDate, logId")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Log {
@@ -42,6 +49,10 @@ public class Log {
     @Column(columnDefinition = "TEXT")
     private String ingredientLaw;
 
+    // 성분 분석 당시의 배합 해시 (compliance_results 캐시 키)
+    @Column(name = "ingredient_hash", length = 64)
+    private String ingredientHash;
+
     @Column(columnDefinition = "TEXT")
     private String marketingLaw;
 
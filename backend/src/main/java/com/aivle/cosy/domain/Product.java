@@ -11,7 +11,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "Products")
+@Table(name = "Products", indexes = {
+        // 제품 목록 키셋 페이지네이션 (company_id, updDate desc, id desc)
+        @Index(name = "idx_products_company_upd_date", columnList = "company_id, updDate, id")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Product {
@@ -33,6 +36,21 @@ public class Product {
     @Column(length = 2048)
     private String image;
 
+    // 이미지 업로드 상태, 업로드 중인 이미지 URL (완료되면 image로 옮겨짐)
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ImageStatus imageStatus;
+
+    @Column(length = 2048)
+    private String pendingImage;
+
+    // 목록/상세용 리사이즈 이미지 URL (원본 업로드 후 백그라운드에서 생성)
+    @Column(length = 2048)
+    private String thumbnailImage;
+
+    @Column(length = 2048)
+    private String mediumImage;
+
     @Column(columnDefinition = "TEXT")
     private String fullIngredient;
 
@@ -43,7 +61,9 @@ public class Product {
     @Column(updatable = false)
     private LocalDateTime regDate;
 
+    // 목록 커서 기준이라 항상 값이 있어야 함 (기존 null 행은 ProductUpdDateBackfill이 채움)
     @UpdateTimestamp
+    @Column(nullable = false)
     private LocalDateTime updDate;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -57,16 +77,108 @@ public class Product {
         STEP_1, STEP_2, STEP_3, STEP_4, STEP_5
     }
 
+    public enum ImageStatus{
+        PENDING, READY, FAILED
+    }
+
     @Builder
     public Product(Company company, String name, ProductType type, String image, String fullIngredient, Status status, LocalDateTime updDate) {
         this.company = company;
         this.name = name;
         this.type = type;
         this.image = image;
+        this.imageStatus = image == null ? null : ImageStatus.READY;
         this.fullIngredient = fullIngredient;
         this.status = status;
     }
 
+    // 업로드 대기 이미지의 참조는 pendingImage를 비우는 쪽(실패/교체/새 업로드/삭제)이 한 번만 해제한다.
+    // 업로드가 끝났을 때 이미 비워져 있으면 참조도 이미 해제된 것
+
+    // 비동기 업로드 시작, 기존 이미지는 업로드가 끝날 때까지 유지
+    // 이전에 대기 중이던 업로드 이미지 URL 반환 (참조 해제 대상)
+    public List<String> startImageUpload(String pendingImage) {
+        List<String> dropped = pendingImageFiles();
+        this.pendingImage = pendingImage;
+        this.imageStatus = ImageStatus.PENDING;
+        return dropped;
+    }
+
+    public boolean isPendingImage(String url) {
+        return url != null && url.equals(this.pendingImage);
+    }
+
+    // 업로드 완료된 이미지로 교체, 더 이상 쓰지 않는 이전 이미지(변환본 포함) URL 반환
+    public List<String> completeImageUpload() {
+        List<String> removed = imageFiles();
+        this.image = this.pendingImage;
+        this.pendingImage = null;
+        this.imageStatus = ImageStatus.READY;
+        clearVariants();
+        return removed;
+    }
+
+    // 대기 중이던 업로드 이미지 URL 반환 (참조 해제 대상)
+    public List<String> failImageUpload() {
+        List<String> dropped = pendingImageFiles();
+        this.pendingImage = null;
+        this.imageStatus = ImageStatus.FAILED;
+        return dropped;
+    }
+
+    // 직접 업로드 완료된 이미지로 교체 (진행 중인 비동기 업로드는 취소되어 그 참조도 함께 반환)
+    public List<String> replaceImage(String image) {
+        List<String> removed = imageFiles();
+        removed.remove(image);
+        removed.addAll(pendingImageFiles());
+        this.image = image;
+        this.pendingImage = null;
+        this.imageStatus = ImageStatus.READY;
+        clearVariants();
+        return removed;
+    }
+
+    // 변환본은 해당 원본이 아직 현재 이미지일 때만 반영
+    public boolean applyVariants(String sourceImage, String thumbnailImage, String mediumImage) {
+        if (sourceImage == null || !sourceImage.equals(this.image)) {
+            return false;
+        }
+        this.thumbnailImage = thumbnailImage;
+        this.mediumImage = mediumImage;
+        return true;
+    }
+
+    // 제품 삭제 시 해제할 URL (원본 + 변환본 + 업로드 대기 이미지)
+    public List<String> allImageFiles() {
+        List<String> files = imageFiles();
+        files.addAll(pendingImageFiles());
+        return files;
+    }
+
+    private List<String> pendingImageFiles() {
+        List<String> files = new ArrayList<>();
+        if (pendingImage != null && !pendingImage.isBlank()) {
+            files.add(pendingImage);
+        }
+        return files;
+    }
+
+    // 원본 + 변환본 URL (삭제 대상)
+    public List<String> imageFiles() {
+        List<String> files = new ArrayList<>();
+        for (String url : new String[]{image, thumbnailImage, mediumImage}) {
+            if (url != null && !url.isBlank()) {
+                files.add(url);
+            }
+        }
+        return files;
+    }
+
+    private void clearVariants() {
+        this.thumbnailImage = null;
+        this.mediumImage = null;
+    }
+
     public void update(String name, String type, String image, String fullIngredient, Status status) {
         this.name = name;
         this.type = ProductType.valueOf(type);
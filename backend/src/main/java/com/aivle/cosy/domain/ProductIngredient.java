@@ -0,0 +1,42 @@
+package com.aivle.cosy.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * 제품-성분 posting (성분 -> 제품 역색인)
+ * 제품 삭제와 분리하기 위해 FK 없이 id만 보관하고, company_id를 함께 두어 회사 단위 조회를 인덱스로 처리
+ */
+@Entity
+@Table(name = "product_ingredients", indexes = {
+        @Index(name = "idx_product_ingredients_company_ingredient", columnList = "company_id, ingredient_id, product_id")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ProductIngredient {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "company_id", nullable = false)
+    private Long companyId;
+
+    // 전성분 표기 순서 (0부터)
+    @Column(name = "seq", nullable = false)
+    private int position;
+
+    @Embeddable
+    @Getter
+    @NoArgsConstructor(access = AccessLevel.PROTECTED)
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        @Column(name = "product_id")
+        private Long productId;
+
+        @Column(name = "ingredient_id")
+        private Long ingredientId;
+    }
+}
@@ -0,0 +1,69 @@
+package com.aivle.cosy.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * S3 작업 outbox.
+ * 비즈니스 트랜잭션 안에서는 이 테이블에 작업만 기록하고, 실제 S3 호출은 커밋 이후 relay가 수행한다.
+ * 처리에 성공한 행은 삭제되므로 남아있는 행 수가 곧 backlog.
+ */
+@Entity
+@Table(name = "storage_outbox", indexes = {
+        @Index(name = "idx_storage_outbox_next_attempt", columnList = "next_attempt_at, id")
+}, uniqueConstraints = {
+        // 같은 작업이 중복으로 쌓이지 않도록 (작업 종류 + key)의 해시
+        @UniqueConstraint(name = "uk_storage_outbox_idempotency_key", columnNames = "idempotency_key")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StorageOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 20)
+    private Operation operation;
+
+    @Column(name = "source_key", nullable = false, length = 1024)
+    private String sourceKey;
+
+    // 내용 주소 이미지의 원본 key (변환본 행도 원본 key), relay가 삭제 직전에 이 key의 참조 여부를 잠금 상태로 확인
+    @Column(name = "guard_key", length = 1024)
+    private String guardKey;
+
+    @Column(name = "idempotency_key", nullable = false, length = 64)
+    private String idempotencyKey;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // 이 시각 이후에 처리 (재시도 백오프, relay 점유 시간)
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "reg_date", nullable = false, updatable = false)
+    private LocalDateTime regDate;
+
+    public enum Operation {
+        DELETE
+    }
+
+    // relay가 처리하는 동안 다른 relay가 가져가지 않도록 점유
+    public void claim(LocalDateTime leaseUntil) {
+        this.nextAttemptAt = leaseUntil;
+    }
+
+    public void fail(String error, LocalDateTime retryAt) {
+        this.attempts++;
+        this.lastError = error == null ? null : error.substring(0, Math.min(error.length(), 1000));
+        this.nextAttemptAt = retryAt;
+    }
+}
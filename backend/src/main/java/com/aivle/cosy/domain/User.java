@@ -2,6 +2,7 @@ package com.aivle.cosy.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -31,14 +32,25 @@ public class User {
     @Column(updatable = false)
     private LocalDateTime regDate;
 
+    // 토큰 세대, 증가시키면 이전에 발급된 모든 토큰이 무효화됨
+    // 가입/증가 시각(ms)을 기준으로 잡아, 탈퇴 후 같은 이메일로 재가입해도 이전 계정의 세대보다 항상 큼
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long tokenGeneration;
+
     @Builder
     public User(Company company, String email, String password) {
         this.company = company;
         this.email = email;
         this.password = password;
+        this.tokenGeneration = System.currentTimeMillis();
     }
 
     public void updatePassword(String newPassword) {
         this.password = newPassword;
     }
+
+    public void increaseTokenGeneration() {
+        this.tokenGeneration = Math.max(tokenGeneration + 1, System.currentTimeMillis());
+    }
 }
@@ -0,0 +1,16 @@
+package com.aivle.cosy.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 회사 단위 변경 알림 (SSE /api/events로 전달, 클라이언트는 바뀐 제품/국가만 다시 조회)
+ * productIds가 비어 있으면 범위를 특정할 수 없는 변경 (가져오기 등) -> 목록 전체 다시 조회
+ */
+public record ChangeEvent(Long companyId, Type type, List<Long> productIds, List<String> countries,
+                          LocalDateTime occurredAt) {
+
+    public enum Type {
+        LOG_UPDATED, PRODUCT_CREATED, PRODUCT_UPDATED, PRODUCT_DELETED, PRODUCT_IMPORTED
+    }
+}
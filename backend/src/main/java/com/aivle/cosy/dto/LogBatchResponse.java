@@ -0,0 +1,21 @@
+package com.aivle.cosy.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// 일괄 기록 결과 (results는 요청 순서와 같음, 실패 항목은 errorCode/message 포함)
+// buffered=true면 write-behind 버퍼에 접수된 상태 (POST /api/log/flush 또는 조회 시 반영)
+@Getter
+@AllArgsConstructor
+public class LogBatchResponse {
+    private int succeeded;
+    private int failed;
+    private boolean buffered;
+    private List<ItemResult> results;
+
+    public record ItemResult(int index, Long productId, String country, String updateType,
+                             boolean success, String errorCode, String message) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.aivle.cosy.dto;
+
+import com.aivle.cosy.domain.Log;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 기록 목록 페이지 (키셋 페이지네이션), 탭별로 화면에 표시하는 컬럼만 조회
+@Getter
+@AllArgsConstructor
+public class LogPageResponse<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasNext;
+
+    // 성분 탭 행
+    @Getter
+    @AllArgsConstructor
+    public static class IngredientItem {
+        private Long logId;
+        private Log.Country country;
+        private Long productId;
+        private String productName;
+        private Log.ApprovalStatus ingredientStatus;
+        private String cautiousIngredient;
+        private String ingredientLaw;
+        private LocalDateTime updDate;
+    }
+
+    // 문구 탭 행
+    @Getter
+    @AllArgsConstructor
+    public static class MarketingItem {
+        private Long logId;
+        private Log.Country country;
+        private Long productId;
+        private String productName;
+        private Log.ApprovalStatus marketingStatus;
+        private String marketingLaw;
+        private LocalDateTime updDate;
+    }
+}
@@ -15,6 +15,8 @@ public class LogRequest {
     private String ingredientStatus;
     private String cautiousIngredient;
     private String ingredientLaw;
+    // 분석한 전성분 (현재 제품 전성분과 같을 때만 배합 캐시에 저장)
+    private String fullIngredient;
 
     private String marketingStatus;
     private String marketingLaw;
@@ -20,6 +20,25 @@ public class LogResponse {
 
     private LocalDateTime updDate;
 
+    // 목록 조회용 projection (Products join 한 번으로 제품명까지 조회)
+    public LogResponse(Long logId, Log.Country country, Long productId, String productName,
+                       Log.ApprovalStatus ingredientStatus, String cautiousIngredient, String ingredientLaw,
+                       Log.ApprovalStatus marketingStatus, String marketingLaw, LocalDateTime updDate) {
+        this.logId = logId;
+        this.country = country.name();
+        this.productId = productId;
+        this.productName = productName;
+
+        this.ingredientStatus = ingredientStatus != null ? ingredientStatus.name() : "UNKNOWN";
+        this.cautiousIngredient = cautiousIngredient;
+        this.ingredientLaw = ingredientLaw;
+
+        this.marketingStatus = marketingStatus != null ? marketingStatus.name() : "UNKNOWN";
+        this.marketingLaw = marketingLaw;
+
+        this.updDate = updDate;
+    }
+
     public LogResponse(Log log) {
         this.logId = log.getLogId();
         this.country = log.getCountry().name();
@@ -0,0 +1,25 @@
+package com.aivle.cosy.dto;
+
+import com.aivle.cosy.domain.Log;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// 기록 목록 조회 조건 (쿼리 파라미터), status는 조회하는 탭(성분/문구)의 상태
+@Getter
+@Setter
+@NoArgsConstructor
+public class LogSearchRequest {
+    private Integer size;
+    private String cursor;
+    private Log.Country country;
+    private Log.ApprovalStatus status;
+    private Long productId;
+
+    // 이 시각 이후 수정된 기록만 (예: 2026-01-01T00:00:00)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedSince;
+}
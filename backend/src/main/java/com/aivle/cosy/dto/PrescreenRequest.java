@@ -0,0 +1,13 @@
+package com.aivle.cosy.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+public class PrescreenRequest {
+    private String fullIngredient;
+
+    // 비어 있으면 전체 국가 검사
+    private String country;
+}
@@ -0,0 +1,31 @@
+package com.aivle.cosy.dto;
+
+import com.aivle.cosy.domain.Log;
+import com.aivle.cosy.service.IngredientRuleSet;
+import lombok.Getter;
+
+import java.util.List;
+
+// 규칙 기반 잠정 결과 (LLM 분석 전 표시용)
+// ruleCount가 0이면 규칙이 적재되지 않은 상태라 판정하지 않음 (ingredientStatus, cautiousIngredient가 null)
+@Getter
+public class PrescreenResponse {
+    private String country;
+    private String ingredientStatus;
+    private String cautiousIngredient;
+    private List<Hit> hits;
+    private int ruleCount;
+
+    public record Hit(String name, String englishName, String category) {
+    }
+
+    public PrescreenResponse(Log.Country country, IngredientRuleSet.Result result, int ruleCount) {
+        this.country = country.name();
+        this.ingredientStatus = ruleCount == 0 ? null : result.status().name();
+        this.cautiousIngredient = ruleCount == 0 ? null : result.cautiousIngredient();
+        this.hits = result.hits().stream()
+                .map(rule -> new Hit(rule.name(), rule.englishName(), rule.category().getLabel()))
+                .toList();
+        this.ruleCount = ruleCount;
+    }
+}
@@ -2,9 +2,11 @@ package com.aivle.cosy.dto;
 
 import com.aivle.cosy.domain.Product;
 import com.aivle.cosy.domain.Product.Status;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.time.LocalDateTime;
 
@@ -19,4 +21,51 @@ public class ProductRequest {
         private Status status;
     }
 
+    // 제품 목록 조회 조건 (쿼리 파라미터)
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class SearchRequest {
+        private Integer size;
+        private String cursor;
+        private Product.ProductType type;
+        private Status status;
+        private boolean includeIngredient;
+    }
+
+    // 이미지 직접 업로드용 presigned URL 요청
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PresignRequest {
+        private String fileName;
+        private String contentType;
+        private Long contentLength;
+        // 선택: 파일의 SHA-256(hex), 있으면 내용 주소 key로 발급하고 중복 업로드를 생략
+        private String sha256;
+        // 이미지를 연결할 제품 (sha256 없이 발급하는 key는 이 제품에서만 확정 가능)
+        private Long productId;
+    }
+
+    // 대량 가져오기 한 행 (CSV/NDJSON), enum 값은 검증 후 변환
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ImportRow {
+        private String name;
+        private String type;
+        private String status;
+        private String fullIngredient;
+    }
+
+    // 직접 업로드한 이미지를 제품에 연결
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ConfirmImageRequest {
+        private String key;
+    }
+
 }
@@ -1,6 +1,8 @@
 package com.aivle.cosy.dto;
 
+import com.aivle.cosy.domain.Log;
 import com.aivle.cosy.domain.Product;
+import com.aivle.cosy.domain.Product.ImageStatus;
 import com.aivle.cosy.domain.Product.ProductType;
 import com.aivle.cosy.domain.Product.Status;
 import lombok.AllArgsConstructor;
@@ -9,6 +11,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class ProductResponse {
     // 제품 생성 Response
@@ -24,22 +27,35 @@ public class ProductResponse {
     // 전 제품 조회 Response
     @Getter
     @Builder
+    @AllArgsConstructor
     public static class DetailResponse{
         private Long id;
         private String name;
         private ProductType type;
         private String image;
+        private String thumbnailImage;
+        private String mediumImage;
+        private ImageStatus imageStatus;
         private String fullIngredient;
         private Status status;
         private LocalDateTime regDate;
         private LocalDateTime upDate;
 
+        // 목록용 projection (fullIngredient 제외)
+        public DetailResponse(Long id, String name, ProductType type, String image, String thumbnailImage, String mediumImage,
+                              ImageStatus imageStatus, Status status, LocalDateTime regDate, LocalDateTime upDate) {
+            this(id, name, type, image, thumbnailImage, mediumImage, imageStatus, null, status, regDate, upDate);
+        }
+
         public static DetailResponse from(Product product) {
             return DetailResponse.builder()
                     .id(product.getId())
                     .name(product.getName())
                     .type(product.getType())
                     .image(product.getImage())
+                    .thumbnailImage(product.getThumbnailImage())
+                    .mediumImage(product.getMediumImage())
+                    .imageStatus(product.getImageStatus())
                     .fullIngredient(product.getFullIngredient())
                     .status(product.getStatus())
                     .regDate(product.getRegDate())
@@ -48,6 +64,58 @@ public class ProductResponse {
         }
     }
 
+    // 제품 목록 페이지 Response (키셋 페이지네이션)
+    @Getter
+    @AllArgsConstructor
+    public static class PageResponse {
+        private List<DetailResponse> items;
+        private String nextCursor;
+        private boolean hasNext;
+    }
+
+    // 대량 가져오기 결과 (errors는 최대 개수까지만 담고 넘치면 errorsTruncated)
+    @Getter
+    @AllArgsConstructor
+    public static class ImportResponse {
+        private int totalRows;
+        private int imported;
+        private int failed;
+        private List<RowError> errors;
+        private boolean errorsTruncated;
+    }
+
+    public record RowError(int row, String message) {
+    }
+
+    // 유사 배합 분석 결과 제안 (addedIngredients/removedIngredients: 비교 제품 대비 추가/제외된 성분)
+    @Getter
+    @AllArgsConstructor
+    public static class SimilarAnalysisResponse {
+        private Long sourceProductId;
+        private String sourceProductName;
+        private double similarity;
+        private List<String> addedIngredients;
+        private List<String> removedIngredients;
+        private List<CountryAnalysis> analyses;
+    }
+
+    public record CountryAnalysis(Log.Country country, Log.ApprovalStatus ingredientStatus,
+                                  String cautiousIngredient, String ingredientLaw) {
+    }
+
+    // presigned URL 발급 Response
+    @Getter
+    @AllArgsConstructor
+    public static class PresignResponse {
+        private String key;
+        // 이미 같은 이미지가 저장돼 있으면 null (업로드 없이 바로 confirm)
+        private String uploadUrl;
+        private LocalDateTime expiresAt;
+        // sha256을 보낸 경우 업로드 시 x-amz-checksum-sha256 헤더로 보내야 하는 값
+        private String checksumSha256;
+        private boolean alreadyUploaded;
+    }
+
     // 제품 수정, 삭제 Response
     @Getter
     @AllArgsConstructor
@@ -0,0 +1,14 @@
+package com.aivle.cosy.dto;
+
+/**
+ * 로그인/토큰 재발급/토큰 세대 확인에 필요한 유저 정보 (캐시 대상)
+ */
+public record UserAuthInfo(
+        Long userId,
+        String email,
+        Long companyId,
+        String companyName,
+        String passwordHash,
+        long tokenGeneration
+) {
+}
@@ -0,0 +1,30 @@
+package com.aivle.cosy.exception;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+@RequiredArgsConstructor
+public enum CommonErrorCode implements ErrorCode {
+    INVALID_CURSOR(HttpStatus.BAD_REQUEST, "잘못된 페이지 커서입니다."),
+    INVALID_PARAMETER(HttpStatus.BAD_REQUEST, "요청 파라미터가 올바르지 않습니다."),
+    WRITE_BUFFER_FULL(HttpStatus.SERVICE_UNAVAILABLE, "처리 대기 중인 기록이 많습니다. 잠시 후 다시 시도해주세요."),
+    WRITE_BUFFER_TIMEOUT(HttpStatus.SERVICE_UNAVAILABLE, "대기 중인 기록을 아직 반영하지 못했습니다. 잠시 후 다시 시도해주세요.");
+
+    private final HttpStatus status;
+    private final String message;
+
+    @Override
+    public HttpStatus defaultHttpStatus() {
+        return this.status;
+    }
+
+    @Override
+    public BusinessException defaultException() {
+        return new BusinessException(this);
+    }
+
+    @Override
+    public String defaultMessage() {
+        return this.message;
+    }
+}
@@ -2,6 +2,7 @@ package com.aivle.cosy.exception;
 
 import com.aivle.cosy.dto.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -25,6 +26,15 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, httpStatus);
     }
 
+    // rate limit 초과 시 Retry-After 헤더와 함께 응답
+    @ExceptionHandler(RateLimitException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitException(RateLimitException ex) {
+        ErrorResponse response = new ErrorResponse(ex.getErrorCode().code(), ex.getMessage());
+        return ResponseEntity.status(ex.getErrorCode().defaultHttpStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     // @Valid 검증 실패 시 처리
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
@@ -10,7 +10,11 @@ public enum ProductErrorCode implements ErrorCode {
 
     PRODUCT_NOT_FOUND(HttpStatus.NOT_FOUND, "해당 제품을 찾을 수 없습니다."),
     UNAUTHORIZED_ACCESS(HttpStatus.FORBIDDEN, "해당 제품에 대한 접근 권한이 없습니다."),
-    INVALID_PRODUCT_DATA(HttpStatus.BAD_REQUEST, "제품 정보가 유효하지 않습니다.");
+    INVALID_PRODUCT_DATA(HttpStatus.BAD_REQUEST, "제품 정보가 유효하지 않습니다."),
+    IMAGE_UPLOAD_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "이미지 업로드에 실패했습니다."),
+    INVALID_IMAGE(HttpStatus.BAD_REQUEST, "허용되지 않는 이미지 형식이거나 크기를 초과했습니다."),
+    IMAGE_NOT_UPLOADED(HttpStatus.BAD_REQUEST, "업로드된 이미지를 찾을 수 없습니다."),
+    INVALID_IMPORT_FILE(HttpStatus.BAD_REQUEST, "가져오기 파일 형식이 올바르지 않습니다.");
 
     private final HttpStatus httpStatus;
     private final String message;
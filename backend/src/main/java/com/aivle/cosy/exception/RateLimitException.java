@@ -0,0 +1,14 @@
+package com.aivle.cosy.exception;
+
+import lombok.Getter;
+
+@Getter
+public class RateLimitException extends BusinessException {
+    // Retry-After 헤더 값 (초)
+    private final long retryAfterSeconds;
+
+    public RateLimitException(long retryAfterMs) {
+        super(AuthErrorCode.TOO_MANY_REQUESTS);
+        this.retryAfterSeconds = Math.max(1, (retryAfterMs + 999) / 1000);
+    }
+}
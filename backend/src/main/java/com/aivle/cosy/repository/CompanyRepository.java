@@ -3,9 +3,14 @@ package com.aivle.cosy.repository;
 import com.aivle.cosy.domain.Company;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CompanyRepository extends JpaRepository<Company, Long> {
     Optional<Company> findByDomain(String domain);
+
+    @Query("select c.id from Company c where c.domain = :domain")
+    Optional<Long> findIdByDomain(@Param("domain") String domain);
 }
\ No newline at end of file
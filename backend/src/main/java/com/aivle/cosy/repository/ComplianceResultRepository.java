@@ -0,0 +1,11 @@
+package com.aivle.cosy.repository;
+
+import com.aivle.cosy.domain.ComplianceResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ComplianceResultRepository extends JpaRepository<ComplianceResult, Long> {
+    // 해당 배합의 국가별 분석 결과
+    List<ComplianceResult> findByIngredientHash(String ingredientHash);
+}
@@ -0,0 +1,53 @@
+package com.aivle.cosy.repository;
+
+import com.aivle.cosy.domain.ImageObject;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ImageObjectRepository extends JpaRepository<ImageObject, Long> {
+    Optional<ImageObject> findByObjectKey(String objectKey);
+
+    // 참조 추가 (없으면 ref_count 1로 생성, 동시 요청도 한 행으로 합쳐짐)
+    @Modifying
+    @Query(value = "insert into image_objects (object_key, ref_count, uploaded, reg_date) "
+            + "values (:objectKey, 1, false, :now) "
+            + "on duplicate key update ref_count = ref_count + 1", nativeQuery = true)
+    int acquire(@Param("objectKey") String objectKey, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update ImageObject o set o.refCount = o.refCount - 1 where o.objectKey = :objectKey and o.refCount > 0")
+    int release(@Param("objectKey") String objectKey);
+
+    // 참조가 없는 행 생성 (이미 있으면 그대로, relay가 삭제할 때 잠글 행)
+    @Modifying
+    @Query(value = "insert into image_objects (object_key, ref_count, uploaded, reg_date) "
+            + "values (:objectKey, 0, false, :now) "
+            + "on duplicate key update object_key = object_key", nativeQuery = true)
+    int insertUnreferenced(@Param("objectKey") String objectKey, @Param("now") LocalDateTime now);
+
+    // 벌크 갱신 이후에도 영속성 컨텍스트가 아닌 DB 값을 읽도록 스칼라 조회
+    @Query("select count(o) > 0 from ImageObject o where o.objectKey = :objectKey and o.refCount > 0")
+    boolean isReferenced(@Param("objectKey") String objectKey);
+
+    // relay 삭제 직전 확인: 참조가 없는 행을 잠가 그동안 acquire가 기다리게 함
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from ImageObject o where o.objectKey in :objectKeys and o.refCount = 0")
+    List<ImageObject> lockUnreferenced(@Param("objectKeys") Collection<String> objectKeys);
+
+    @Modifying
+    @Query("delete from ImageObject o where o.objectKey in :objectKeys and o.refCount = 0")
+    int deleteUnreferenced(@Param("objectKeys") Collection<String> objectKeys);
+
+    @Modifying
+    @Query("update ImageObject o set o.uploaded = true where o.objectKey = :objectKey")
+    int markUploaded(@Param("objectKey") String objectKey);
+}
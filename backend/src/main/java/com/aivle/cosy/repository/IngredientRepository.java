@@ -0,0 +1,10 @@
+package com.aivle.cosy.repository;
+
+import com.aivle.cosy.domain.Ingredient;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
+    Optional<Ingredient> findByName(String name);
+}
@@ -1,23 +1,117 @@
 package com.aivle.cosy.repository;
 
 import com.aivle.cosy.domain.Log;
+import com.aivle.cosy.dto.LogPageResponse;
+import com.aivle.cosy.dto.LogResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LogRepository extends JpaRepository<Log, Long> {
+    String LIST_SELECT = "select new com.aivle.cosy.dto.LogResponse("
+            + "l.logId, l.country, p.id, p.name, l.ingredientStatus, l.cautiousIngredient, l.ingredientLaw, "
+            + "l.marketingStatus, l.marketingLaw, l.updDate) "
+            + "from Log l join l.product p ";
+    String PAGE_FILTER = "and (:country is null or l.country = :country) "
+            + "and (:productId is null or l.product.id = :productId) "
+            + "and (:updatedSince is null or l.updDate >= :updatedSince) "
+            + "and (:cursorDate is null or l.updDate < :cursorDate or (l.updDate = :cursorDate and l.logId < :cursorId)) "
+            + "order by l.updDate desc, l.logId desc";
+
     // 기록 조회
     Optional<Log> findByProductIdAndCountry(Long productId, Log.Country country);
 
-    // 회사의 특정 국가 기록 전체 조회
-    List<Log> findByCompanyIdAndCountry(Long companyId, Log.Country country);
+    // 성분 탭 목록 (분석 결과가 있는 로그만, 최신순)
+    @Query(LIST_SELECT + "where l.company.id = :companyId and l.ingredientStatus is not null "
+            + "order by l.updDate desc, l.logId desc")
+    List<LogResponse> findIngredientLogs(@Param("companyId") Long companyId);
+
+    @Query(LIST_SELECT + "where l.company.id = :companyId and l.country = :country and l.ingredientStatus is not null "
+            + "order by l.updDate desc, l.logId desc")
+    List<LogResponse> findIngredientLogsByCountry(@Param("companyId") Long companyId, @Param("country") Log.Country country);
+
+    // 문구 탭 목록
+    @Query(LIST_SELECT + "where l.company.id = :companyId and l.marketingStatus is not null "
+            + "order by l.updDate desc, l.logId desc")
+    List<LogResponse> findMarketingLogs(@Param("companyId") Long companyId);
+
+    @Query(LIST_SELECT + "where l.company.id = :companyId and l.country = :country and l.marketingStatus is not null "
+            + "order by l.updDate desc, l.logId desc")
+    List<LogResponse> findMarketingLogsByCountry(@Param("companyId") Long companyId, @Param("country") Log.Country country);
+
+    // 성분 탭 키셋 페이지 (updDate desc, logId desc), 조건이 null이면 적용하지 않음
+    @Query("select new com.aivle.cosy.dto.LogPageResponse$IngredientItem("
+            + "l.logId, l.country, p.id, p.name, l.ingredientStatus, l.cautiousIngredient, l.ingredientLaw, l.updDate) "
+            + "from Log l join l.product p where l.company.id = :companyId and l.ingredientStatus is not null "
+            + "and (:status is null or l.ingredientStatus = :status) "
+            + PAGE_FILTER)
+    List<LogPageResponse.IngredientItem> findIngredientPage(@Param("companyId") Long companyId,
+                                                            @Param("country") Log.Country country,
+                                                            @Param("status") Log.ApprovalStatus status,
+                                                            @Param("productId") Long productId,
+                                                            @Param("updatedSince") LocalDateTime updatedSince,
+                                                            @Param("cursorDate") LocalDateTime cursorDate,
+                                                            @Param("cursorId") Long cursorId,
+                                                            Pageable pageable);
+
+    // 문구 탭 키셋 페이지
+    @Query("select new com.aivle.cosy.dto.LogPageResponse$MarketingItem("
+            + "l.logId, l.country, p.id, p.name, l.marketingStatus, l.marketingLaw, l.updDate) "
+            + "from Log l join l.product p where l.company.id = :companyId and l.marketingStatus is not null "
+            + "and (:status is null or l.marketingStatus = :status) "
+            + PAGE_FILTER)
+    List<LogPageResponse.MarketingItem> findMarketingPage(@Param("companyId") Long companyId,
+                                                          @Param("country") Log.Country country,
+                                                          @Param("status") Log.ApprovalStatus status,
+                                                          @Param("productId") Long productId,
+                                                          @Param("updatedSince") LocalDateTime updatedSince,
+                                                          @Param("cursorDate") LocalDateTime cursorDate,
+                                                          @Param("cursorId") Long cursorId,
+                                                          Pageable pageable);
+
+    // (product_id, country) 기준 성분 분석 결과 upsert, 제품이 해당 회사 소유가 아니면 0행
+    @Modifying
+    @Query(value = "insert into log (product_id, company_id, country, ingredient_status, cautious_ingredient, "
+            + "ingredient_law, ingredient_hash, upd_date) "
+            + "select p.id, p.company_id, :country, :status, :cautious, :law, :hash, :now from products p "
+            + "where p.id = :productId and p.company_id = :companyId "
+            + "on duplicate key update ingredient_status = values(ingredient_status), "
+            + "cautious_ingredient = values(cautious_ingredient), ingredient_law = values(ingredient_law), "
+            + "ingredient_hash = values(ingredient_hash), upd_date = values(upd_date)", nativeQuery = true)
+    int upsertIngredient(@Param("productId") Long productId,
+                         @Param("companyId") Long companyId,
+                         @Param("country") String country,
+                         @Param("status") String status,
+                         @Param("cautious") String cautiousIngredient,
+                         @Param("law") String ingredientLaw,
+                         @Param("hash") String ingredientHash,
+                         @Param("now") LocalDateTime now);
+
+    // (product_id, country) 기준 문구 분석 결과 upsert, 제품이 해당 회사 소유가 아니면 0행
+    @Modifying
+    @Query(value = "insert into log (product_id, company_id, country, marketing_status, marketing_law, upd_date) "
+            + "select p.id, p.company_id, :country, :status, :law, :now from products p "
+            + "where p.id = :productId and p.company_id = :companyId "
+            + "on duplicate key update marketing_status = values(marketing_status), "
+            + "marketing_law = values(marketing_law), upd_date = values(upd_date)", nativeQuery = true)
+    int upsertMarketing(@Param("productId") Long productId,
+                        @Param("companyId") Long companyId,
+                        @Param("country") String country,
+                        @Param("status") String status,
+                        @Param("law") String marketingLaw,
+                        @Param("now") LocalDateTime now);
 
-    // 해당 회사의 전 로그 조회
-    List<Log> findByCompanyId(Long companyId);
+    // 성분 분석이 끝난 제품들의 로그 (유사 배합 제안)
+    List<Log> findByProductIdInAndIngredientStatusIsNotNull(Collection<Long> productIds);
 
     // 최근 7일 이내 로그 개수
     long countByCompanyIdAndUpdDateAfter(Long companyId, LocalDateTime date);
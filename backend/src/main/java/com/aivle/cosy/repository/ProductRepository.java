@@ -1,13 +1,66 @@
 package com.aivle.cosy.repository;
 
 import com.aivle.cosy.domain.Product;
+import com.aivle.cosy.dto.ProductResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCompanyId(Long companyId);
 
+    // 전체 제품 목록 (엔티티 대신 DTO로 바로 조회)
+    @Query("select new com.aivle.cosy.dto.ProductResponse$DetailResponse("
+            + "p.id, p.name, p.type, p.image, p.thumbnailImage, p.mediumImage, p.imageStatus, p.fullIngredient, p.status, p.regDate, p.updDate) "
+            + "from Product p where p.company.id = :companyId order by p.id")
+    List<ProductResponse.DetailResponse> findDetailsByCompanyId(@Param("companyId") Long companyId);
+
+    // 키셋 페이지 조회 (updDate desc, id desc), 커서가 없으면 첫 페이지
+    @Query("select new com.aivle.cosy.dto.ProductResponse$DetailResponse("
+            + "p.id, p.name, p.type, p.image, p.thumbnailImage, p.mediumImage, p.imageStatus, p.status, p.regDate, p.updDate) "
+            + "from Product p where p.company.id = :companyId "
+            + "and (:type is null or p.type = :type) "
+            + "and (:status is null or p.status = :status) "
+            + "and (:cursorDate is null or p.updDate < :cursorDate or (p.updDate = :cursorDate and p.id < :cursorId)) "
+            + "order by p.updDate desc, p.id desc")
+    List<ProductResponse.DetailResponse> findPageByCompanyId(@Param("companyId") Long companyId,
+                                                             @Param("type") Product.ProductType type,
+                                                             @Param("status") Product.Status status,
+                                                             @Param("cursorDate") LocalDateTime cursorDate,
+                                                             @Param("cursorId") Long cursorId,
+                                                             Pageable pageable);
+
+    // 위와 같은 조건에 fullIngredient 포함
+    @Query("select new com.aivle.cosy.dto.ProductResponse$DetailResponse("
+            + "p.id, p.name, p.type, p.image, p.thumbnailImage, p.mediumImage, p.imageStatus, p.fullIngredient, p.status, p.regDate, p.updDate) "
+            + "from Product p where p.company.id = :companyId "
+            + "and (:type is null or p.type = :type) "
+            + "and (:status is null or p.status = :status) "
+            + "and (:cursorDate is null or p.updDate < :cursorDate or (p.updDate = :cursorDate and p.id < :cursorId)) "
+            + "order by p.updDate desc, p.id desc")
+    List<ProductResponse.DetailResponse> findPageWithIngredientByCompanyId(@Param("companyId") Long companyId,
+                                                                           @Param("type") Product.ProductType type,
+                                                                           @Param("status") Product.Status status,
+                                                                           @Param("cursorDate") LocalDateTime cursorDate,
+                                                                           @Param("cursorId") Long cursorId,
+                                                                           Pageable pageable);
+
     // 전체 제품 개수
     long countByCompanyId(Long companyId);
+
+    // 특정 성분이 들어간 회사 제품 (성분 역색인 사용)
+    @Query("select new com.aivle.cosy.dto.ProductResponse$DetailResponse("
+            + "p.id, p.name, p.type, p.image, p.thumbnailImage, p.mediumImage, p.imageStatus, p.status, p.regDate, p.updDate) "
+            + "from Product p where p.company.id = :companyId and p.id in ("
+            + "select pi.id.productId from ProductIngredient pi where pi.companyId = :companyId and pi.id.ingredientId = :ingredientId) "
+            + "order by p.updDate desc, p.id desc")
+    List<ProductResponse.DetailResponse> findByCompanyIdAndIngredientId(@Param("companyId") Long companyId,
+                                                                        @Param("ingredientId") Long ingredientId);
+
+    // 유실된 이미지 업로드 정리 대상 (status 상태로 before 이전부터 머물러 있는 제품)
+    List<Product> findByImageStatusAndUpdDateBefore(Product.ImageStatus imageStatus, LocalDateTime before);
 }
@@ -0,0 +1,47 @@
+package com.aivle.cosy.repository;
+
+import com.aivle.cosy.domain.StorageOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StorageOutboxRepository extends JpaRepository<StorageOutbox, Long> {
+
+    // 같은 작업이 이미 대기 중이면 그대로 두고, 재시도를 모두 소진한(dead) 행이면 다시 대기 상태로 되돌림
+    // (호출한 트랜잭션은 롤백되지 않음, MySQL은 SET 절을 왼쪽부터 적용하므로 attempts를 마지막에 바꿈)
+    @Modifying
+    @Query(value = "insert into storage_outbox "
+            + "(operation, source_key, guard_key, idempotency_key, attempts, next_attempt_at, reg_date) "
+            + "values (:operation, :sourceKey, :guardKey, :idempotencyKey, 0, :now, :now) "
+            + "on duplicate key update "
+            + "next_attempt_at = if(attempts >= :maxAttempts, :now, next_attempt_at), "
+            + "last_error = if(attempts >= :maxAttempts, null, last_error), "
+            + "attempts = if(attempts >= :maxAttempts, 0, attempts)", nativeQuery = true)
+    int upsert(@Param("operation") String operation,
+               @Param("sourceKey") String sourceKey,
+               @Param("guardKey") String guardKey,
+               @Param("idempotencyKey") String idempotencyKey,
+               @Param("now") LocalDateTime now,
+               @Param("maxAttempts") int maxAttempts);
+
+    // 처리할 작업 조회, 다른 인스턴스가 잠근 행은 건너뜀 (SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from StorageOutbox o where o.nextAttemptAt <= :now and o.attempts < :maxAttempts order by o.id")
+    List<StorageOutbox> findDueForUpdate(@Param("now") LocalDateTime now,
+                                         @Param("maxAttempts") int maxAttempts,
+                                         Pageable pageable);
+
+    long countByAttemptsLessThan(int maxAttempts);
+
+    long countByAttemptsGreaterThanEqual(int maxAttempts);
+}
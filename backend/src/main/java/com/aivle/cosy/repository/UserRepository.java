@@ -1,11 +1,26 @@
 package com.aivle.cosy.repository;
 
 import com.aivle.cosy.domain.User;
+import com.aivle.cosy.dto.UserAuthInfo;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    @Query("select new com.aivle.cosy.dto.UserAuthInfo(u.id, u.email, c.id, c.companyName, u.password, u.tokenGeneration) "
+            + "from User u join u.company c where u.email = :email")
+    Optional<UserAuthInfo> findAuthInfoByEmail(@Param("email") String email);
+
+    // 저장된 해시가 그대로일 때만 교체 (그 사이 비밀번호가 바뀌었으면 무시)
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newPassword where u.id = :id and u.password = :oldPassword")
+    int replacePassword(@Param("id") Long id, @Param("oldPassword") String oldPassword, @Param("newPassword") String newPassword);
 }
@@ -0,0 +1,80 @@
+package com.aivle.cosy.security;
+
+import com.aivle.cosy.exception.AuthErrorCode;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 인증 API(permitAll)에 대한 IP 단위 rate limit
+ * DB 조회나 BCrypt 이전에 거절해서 credential stuffing 비용을 최소화한다.
+ * 클라이언트가 보낸 X-Forwarded-For는 믿지 않고, 신뢰하는 프록시(nginx)가 설정한 X-Real-IP만 사용한다.
+ */
+@RequiredArgsConstructor
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+    // 이메일 단위 제한에서 같은 클라이언트 주소를 쓰도록 요청 속성으로 전달
+    public static final String CLIENT_IP_ATTRIBUTE = AuthRateLimitFilter.class.getName() + ".clientIp";
+    private static final Set<String> LIMITED_PATHS = Set.of("/api/auth/login", "/api/auth/signup", "/api/auth/refresh");
+
+    private final AuthRateLimiter rateLimiter;
+    // 비어 있으면 loopback/사설망 주소(같은 호스트, docker 네트워크의 nginx)를 신뢰
+    private final Set<String> trustedProxies;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equalsIgnoreCase(request.getMethod()) || !LIMITED_PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String clientIp = clientIp(request);
+        request.setAttribute(CLIENT_IP_ATTRIBUTE, clientIp);
+        long retryAfterMs = rateLimiter.tryAcquireByIp(clientIp);
+        if (retryAfterMs > 0) {
+            AuthErrorCode errorCode = AuthErrorCode.TOO_MANY_REQUESTS;
+            response.setStatus(errorCode.defaultHttpStatus().value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfterMs + 999) / 1000)));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write("{\"code\":\"" + errorCode.code() + "\",\"message\":\"" + errorCode.defaultMessage() + "\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // nginx는 X-Real-IP를 $remote_addr로 덮어씀 (X-Forwarded-For 첫 값은 클라이언트가 임의로 넣을 수 있음)
+    // 신뢰하는 프록시를 거치지 않은 요청은 연결 주소를 그대로 사용
+    private String clientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        String realIp = request.getHeader("X-Real-IP");
+        if (realIp != null && !realIp.isBlank() && isTrustedProxy(remoteAddr)) {
+            return realIp.trim();
+        }
+        return remoteAddr;
+    }
+
+    private boolean isTrustedProxy(String remoteAddr) {
+        if (!trustedProxies.isEmpty()) {
+            return trustedProxies.contains(remoteAddr);
+        }
+        try {
+            // IP 문자열이라 DNS 조회 없음
+            InetAddress address = InetAddress.getByName(remoteAddr);
+            return address.isLoopbackAddress() || address.isSiteLocalAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.aivle.cosy.security;
+
+import com.aivle.cosy.exception.RateLimitException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 인증 API용 토큰 버킷 rate limiter (IP, 이메일 단위).
+ * 이메일 버킷은 (이메일, 클라이언트 IP) 단위이고 로그인은 실패했을 때만 차감하므로,
+ * 다른 사람이 피해자 이메일로 요청을 보내도 피해자의 로그인은 막히지 않는다.
+ * 버킷 계산은 Redis Lua 스크립트로 원자적으로 처리해서 여러 노드가 같은 버킷을 공유한다.
+ * 한 번 거절된 키는 재시도 가능 시각까지 로컬에서 바로 거절해서 Redis 호출도 하지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthRateLimiter {
+    private static final String KEY_PREFIX = "ratelimit:auth:";
+
+    // KEYS[1]=버킷 키, ARGV[1]=용량, ARGV[2]=분당 충전량 / 반환: 0이면 허용, 아니면 재시도까지 남은 ms
+    private static final RedisScript<Long> TOKEN_BUCKET = RedisScript.of("""
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2]) / 60000
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(bucket[1]) or capacity
+            local ts = tonumber(bucket[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+            local retry = 0
+            if tokens >= 1 then
+              tokens = tokens - 1
+            else
+              retry = math.ceil((1 - tokens) / rate)
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate))
+            return retry
+            """, Long.class);
+
+    // 차감 없이 남은 토큰만 확인 / 반환: 0이면 허용, 아니면 재시도까지 남은 ms
+    private static final RedisScript<Long> PEEK = RedisScript.of("""
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2]) / 60000
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(bucket[1]) or capacity
+            local ts = tonumber(bucket[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+            if tokens >= 1 then
+              return 0
+            end
+            return math.ceil((1 - tokens) / rate)
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${rate-limit.auth.ip.capacity:30}")
+    private long ipCapacity;
+
+    @Value("${rate-limit.auth.ip.refill-per-minute:30}")
+    private long ipRefillPerMinute;
+
+    @Value("${rate-limit.auth.email.capacity:5}")
+    private long emailCapacity;
+
+    @Value("${rate-limit.auth.email.refill-per-minute:5}")
+    private long emailRefillPerMinute;
+
+    // 버킷 키 -> 다시 허용되는 시각 (epoch ms)
+    private final ConcurrentHashMap<String, Long> blockedUntil = new ConcurrentHashMap<>();
+
+    /**
+     * IP 단위 제한
+     * @return 0이면 허용, 아니면 재시도까지 남은 시간 (밀리초)
+     */
+    public long tryAcquireByIp(String ip) {
+        return tryAcquire("ip:" + ip, ipCapacity, ipRefillPerMinute);
+    }
+
+    /**
+     * 이메일 단위 제한 확인 (차감 없음, 로그인 실패 시 recordEmailFailure로 차감), 초과 시 RateLimitException
+     */
+    public void checkEmail(String email) {
+        if (email == null || email.isBlank()) return;
+
+        long retryAfterMs = peek(emailBucket(email), emailCapacity, emailRefillPerMinute);
+        if (retryAfterMs > 0) {
+            throw new RateLimitException(retryAfterMs);
+        }
+    }
+
+    // 로그인 실패 한 번 차감
+    public void recordEmailFailure(String email) {
+        if (email == null || email.isBlank()) return;
+        tryAcquire(emailBucket(email), emailCapacity, emailRefillPerMinute);
+    }
+
+    // 요청마다 차감 (가입 등 성공/실패로 구분하지 않는 요청), 초과 시 RateLimitException
+    public void acquireEmail(String email) {
+        if (email == null || email.isBlank()) return;
+
+        long retryAfterMs = tryAcquire(emailBucket(email), emailCapacity, emailRefillPerMinute);
+        if (retryAfterMs > 0) {
+            throw new RateLimitException(retryAfterMs);
+        }
+    }
+
+    private static String emailBucket(String email) {
+        return "email:" + email.toLowerCase(Locale.ROOT) + ":" + clientIp();
+    }
+
+    // AuthRateLimitFilter가 정한 클라이언트 주소 (필터를 거치지 않은 호출이면 unknown)
+    private static String clientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object ip = attributes == null ? null
+                : attributes.getAttribute(AuthRateLimitFilter.CLIENT_IP_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return ip == null ? "unknown" : ip.toString();
+    }
+
+    private long peek(String id, long capacity, long refillPerMinute) {
+        long now = System.currentTimeMillis();
+        Long until = blockedUntil.get(id);
+        if (until != null && until > now) return until - now;
+
+        try {
+            Long retryAfterMs = redisTemplate.execute(PEEK, List.of(KEY_PREFIX + id),
+                    String.valueOf(capacity), String.valueOf(refillPerMinute));
+            return retryAfterMs == null ? 0 : Math.max(retryAfterMs, 0);
+        } catch (Exception e) {
+            log.warn("rate limit 확인 실패: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private long tryAcquire(String id, long capacity, long refillPerMinute) {
+        long now = System.currentTimeMillis();
+        Long until = blockedUntil.get(id);
+        if (until != null) {
+            if (until > now) return until - now;
+            blockedUntil.remove(id, until);
+        }
+
+        Long retryAfterMs;
+        try {
+            retryAfterMs = redisTemplate.execute(TOKEN_BUCKET, List.of(KEY_PREFIX + id),
+                    String.valueOf(capacity), String.valueOf(refillPerMinute));
+        } catch (Exception e) {
+            // Redis 장애로 로그인 자체가 막히지 않도록 허용 (로컬 차단 목록은 계속 동작)
+            log.warn("rate limit 확인 실패: {}", e.getMessage());
+            return 0;
+        }
+
+        if (retryAfterMs == null || retryAfterMs <= 0) return 0;
+        blockedUntil.put(id, now + retryAfterMs);
+        return retryAfterMs;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        blockedUntil.values().removeIf(until -> until <= now);
+    }
+}
@@ -0,0 +1,27 @@
+package com.aivle.cosy.security;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * JwtFilter에서 access token을 한 번 파싱한 결과.
+ * SecurityContext의 principal로 저장되고, 컨트롤러에서는 @LoginUser로 주입받는다.
+ */
+public record AuthUser(
+        String email,
+        Long companyId,
+        String jti,
+        Instant expiresAt,
+        long tokenGeneration
+) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    // 토큰의 남은 만료 시간 (밀리초)
+    public long remainingExpiration() {
+        return expiresAt.toEpochMilli() - System.currentTimeMillis();
+    }
+}
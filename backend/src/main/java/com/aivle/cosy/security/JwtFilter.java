@@ -1,6 +1,7 @@
 package com.aivle.cosy.security;
 
 import com.aivle.cosy.service.TokenBlacklistService;
+import com.aivle.cosy.service.TokenGenerationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
@@ -18,6 +19,7 @@ import org.springframework.web.filter.GenericFilterBean;
 public class JwtFilter extends GenericFilterBean {
     private final JwtTokenProvider jwtProvider;
     private final TokenBlacklistService tokenBlacklistService;
+    private final TokenGenerationService tokenGenerationService;
 
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
@@ -33,13 +35,14 @@ public class JwtFilter extends GenericFilterBean {
             token = header.substring(7);
         }
 
-        // 토큰 유효성 검증 및 인증 설정
-        if (jwtProvider.validateAccessToken(token) && !tokenBlacklistService.isBlacklisted(token)) {
-            String email = jwtProvider.extractEmail(token);
-
+        // 토큰 유효성 검증 및 인증 설정 (서명 검증/파싱은 한 번만)
+        AuthUser authUser = token == null ? null : jwtProvider.authenticate(token);
+        if (authUser != null
+                && !tokenBlacklistService.isJtiBlacklisted(authUser.jti())
+                && tokenGenerationService.isCurrent(authUser.email(), authUser.tokenGeneration())) {
             // SecurityContext에 인증 정보 설정
             UsernamePasswordAuthenticationToken authentication =
-                new UsernamePasswordAuthenticationToken(email, null, Collections.emptyList());
+                new UsernamePasswordAuthenticationToken(authUser, null, Collections.emptyList());
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -2,6 +2,7 @@ package com.aivle.cosy.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
@@ -25,6 +26,9 @@ public class JwtTokenProvider {
 
     private SecretKey secretKey;
 
+    // 파서는 thread-safe 하므로 한 번만 생성해서 재사용
+    private JwtParser jwtParser;
+
     @Value("${jwt.issuer}")
     private String issuer;
 
@@ -38,12 +42,18 @@ public class JwtTokenProvider {
 
     private final static String REFRESH = "refresh";
 
+    private final static String GENERATION = "gen";
+
     @PostConstruct
     public void initKey() {
         secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(secretKey)
+                .requireIssuer(issuer)
+                .build();
     }
 
-    public String createAccessToken(String email, Long companyId) {
+    public String createAccessToken(String email, Long companyId, long tokenGeneration) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + accessExpiration);
 
@@ -53,6 +63,7 @@ public class JwtTokenProvider {
                 //.claims(claims)
                 .claim("companyId", companyId)
                 .claim("type", ACCESS)
+                .claim(GENERATION, tokenGeneration)
                 .issuedAt(now)
                 .issuer(issuer)
                 .expiration(expiryDate)
@@ -60,7 +71,7 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public String createRefreshToken(String email) {
+    public String createRefreshToken(String email, long tokenGeneration) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + refreshExpiration);
 
@@ -68,6 +79,7 @@ public class JwtTokenProvider {
                 .subject(email)
                 .id(UUID.randomUUID().toString())
                 .claim("type", REFRESH)
+                .claim(GENERATION, tokenGeneration)
                 .issuedAt(now)
                 .issuer(issuer)
                 .expiration(expiryDate)
@@ -107,14 +119,43 @@ public class JwtTokenProvider {
     }
 
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .requireIssuer(issuer)
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
+    /**
+     * access token을 한 번만 검증/파싱해서 인증 정보로 변환
+     * @param token JWT 토큰
+     * @return 유효한 access token이면 AuthUser, 아니면 null
+     */
+    public AuthUser authenticate(String token) {
+        try {
+            Claims claims = extractClaims(token);
+            if (!ACCESS.equals(claims.get("type", String.class))) {
+                return null;
+            }
+            return new AuthUser(
+                    claims.getSubject(),
+                    claims.get("companyId", Long.class),
+                    claims.getId(),
+                    claims.getExpiration().toInstant(),
+                    extractTokenGeneration(claims)
+            );
+        } catch (ExpiredJwtException e) {
+            log.debug("토큰 만료: {}", e.getMessage());
+        } catch (MalformedJwtException e) {
+            log.debug("토큰 형식 오류: {}", e.getMessage());
+        } catch (SignatureException e) {
+            log.debug("서명 불일치: {}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            log.debug("지원하지 않는 토큰: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            log.debug("토큰이 비어있음: {}", e.getMessage());
+        }
+        return null;
+    }
+
     public boolean validateAccessToken(String token) {
         try {
             return isAccessToken(token);
@@ -174,6 +215,16 @@ public class JwtTokenProvider {
         return extractClaims(token).getSubject();
     }
 
+    public long extractTokenGeneration(String token) {
+        return extractTokenGeneration(extractClaims(token));
+    }
+
+    // gen 클레임이 없는 예전 토큰은 0세대로 취급
+    private long extractTokenGeneration(Claims claims) {
+        Long generation = claims.get(GENERATION, Long.class);
+        return generation == null ? 0L : generation;
+    }
+
     public Long getCompanyId(String token) {
         return extractClaims(token).get("companyId", Long.class);
     }
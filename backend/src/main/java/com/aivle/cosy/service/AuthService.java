@@ -6,17 +6,18 @@ import com.aivle.cosy.dto.LoginRequest;
 import com.aivle.cosy.dto.LoginResponse;
 import com.aivle.cosy.dto.Message;
 import com.aivle.cosy.dto.RefreshResponse;
+import com.aivle.cosy.dto.UserAuthInfo;
 import com.aivle.cosy.exception.AuthErrorCode;
 import com.aivle.cosy.exception.BusinessException;
 import com.aivle.cosy.exception.ChangePasswordErrorCode;
 import com.aivle.cosy.exception.LoginErrorCode;
 import com.aivle.cosy.exception.UserErrorCode;
 import com.aivle.cosy.repository.UserRepository;
+import com.aivle.cosy.security.AuthRateLimiter;
 import com.aivle.cosy.security.JwtTokenProvider;
 import com.aivle.cosy.util.ValidationUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,26 +28,41 @@ public class AuthService {
     private final UserRepository userRepository;
     private final JwtTokenProvider tokenProvider;
     private final TokenBlacklistService tokenBlacklistService;
-    private final PasswordEncoder passwordEncoder;
+    private final TokenGenerationService tokenGenerationService;
+    private final PasswordHashService passwordHashService;
+    private final AuthRateLimiter authRateLimiter;
+    private final UserAuthCache userAuthCache;
 
-    // 로그인 서비스
-    @Transactional(readOnly = true)
+    // 로그인 서비스, 유저 정보는 캐시에서 읽음 (재해싱이 필요할 때만 DB 쓰기)
     public LoginResponse login(LoginRequest loginInfo) {
         String email = loginInfo.getEmail();
         String password = loginInfo.getPassword();
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new BusinessException(LoginErrorCode.AUTHENTICATION_FAILED));
+        // 같은 클라이언트의 같은 계정 반복 실패는 DB 조회/BCrypt 전에 차단 (차감은 실패했을 때만)
+        authRateLimiter.checkEmail(email);
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        UserAuthInfo user = userAuthCache.getUser(email).orElse(null);
+        if (user == null) {
+            authRateLimiter.recordEmailFailure(email);
             throw new BusinessException(LoginErrorCode.AUTHENTICATION_FAILED);
         }
 
+        PasswordHashService.Verification verification = passwordHashService.verify(password, user.passwordHash());
+        if (!verification.matched()) {
+            authRateLimiter.recordEmailFailure(email);
+            throw new BusinessException(LoginErrorCode.AUTHENTICATION_FAILED);
+        }
+        // 저장된 해시가 예전 형식/cost라면 새 해시로 교체
+        if (verification.upgradedHash() != null
+                && userRepository.replacePassword(user.userId(), user.passwordHash(), verification.upgradedHash()) > 0) {
+            userAuthCache.evict(email);
+        }
+
         LoginResponse response = new LoginResponse();
         response.setEmail(email);
-        response.setCompanyName(user.getCompany().getCompanyName());
-        response.setAccessToken(tokenProvider.createAccessToken(email, user.getCompany().getId()));
-        response.setRefreshToken(tokenProvider.createRefreshToken(email));
+        response.setCompanyName(user.companyName());
+        response.setAccessToken(tokenProvider.createAccessToken(email, user.companyId(), user.tokenGeneration()));
+        response.setRefreshToken(tokenProvider.createRefreshToken(email, user.tokenGeneration()));
         response.setMessage(Message.LOGIN_SUCCESS);
         return response;
     }
@@ -56,21 +72,32 @@ public class AuthService {
         tokenBlacklistService.invalidateSession(accessToken, refreshToken);
     }
 
-    // access token 재발급용
-    @Transactional(readOnly = true)
+    // access token 재발급용, 유저 정보는 캐시에서 읽으므로 DB 왕복 없음
     public RefreshResponse refresh(String refreshToken) {
         if (!tokenProvider.validateRefreshToken(refreshToken) || tokenBlacklistService.isBlacklisted(refreshToken)) {
             throw new BusinessException(AuthErrorCode.INVALID_TOKEN);
         }
         String email = tokenProvider.extractEmail(refreshToken);
+        UserAuthInfo user = userAuthCache.getUser(email)
+                .orElseThrow(() -> new BusinessException(UserErrorCode.USER_NOT_FOUND));
+
+        // 세션 전체 만료 이전에 발급된 refresh token인지 확인
+        if (tokenProvider.extractTokenGeneration(refreshToken) < user.tokenGeneration()) {
+            throw new BusinessException(AuthErrorCode.INVALID_TOKEN);
+        }
+        return new RefreshResponse(tokenProvider.createAccessToken(email, user.companyId(), user.tokenGeneration()));
+    }
+
+    // 모든 기기에서 로그아웃, 토큰 세대를 올려 기존에 발급된 토큰을 전부 무효화
+    @Transactional
+    public void logoutAll(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new BusinessException(UserErrorCode.USER_NOT_FOUND));
-        return new RefreshResponse(tokenProvider.createAccessToken(email, user.getCompany().getId()));
+        tokenGenerationService.revokeAll(user);
     }
 
     @Transactional
-    public void changePassword(String accessToken, String refreshToken, ChangePasswordRequest request) {
-        String email = tokenProvider.extractEmail(accessToken);
+    public void changePassword(String email, ChangePasswordRequest request) {
         String currentPassword = request.currentPassword();
         String newPassword = request.newPassword();
 
@@ -79,7 +106,7 @@ public class AuthService {
                 .orElseThrow(() -> new BusinessException(UserErrorCode.USER_NOT_FOUND));
 
         // 현재 패스워드가 db에 저장한거랑 똑같은지 확인(확인 절차)
-        if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
+        if (!passwordHashService.matches(currentPassword, user.getPassword())) {
             throw new BusinessException(ChangePasswordErrorCode.CURRENT_PASSWORD_MISMATCH);
         }
 
@@ -94,13 +121,13 @@ public class AuthService {
 
         // 확인 절차를 모두 통과했다면 주어진 password 인코딩해서 저장
         try {
-            user.updatePassword(passwordEncoder.encode(newPassword));
+            user.updatePassword(passwordHashService.encode(newPassword));
         } catch (Exception e) {
             log.error(e.getMessage(), e);
             throw new BusinessException(ChangePasswordErrorCode.CHANGE_PASSWORD_FAILED, e.getMessage());
         }
 
-        // 세션 만료
-        tokenBlacklistService.invalidateSession(accessToken, refreshToken);
+        // 세션 만료 (모든 기기)
+        tokenGenerationService.revokeAll(user);
     }
 }
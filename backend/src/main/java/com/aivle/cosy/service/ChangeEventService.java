@@ -0,0 +1,261 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.dto.ChangeEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * 회사별 변경 알림 SSE 스트림.
+ * 분석 기록/제품 변경은 커밋 이후 Redis pub/sub으로 모든 노드에 전파되고,
+ * 각 노드는 자기에게 연결된 같은 회사 클라이언트에게만 보낸다.
+ * 연결은 SseEmitter(비동기 서블릿)로 유지되어 대기 중에는 요청 스레드를 잡지 않는다.
+ * 전송은 클라이언트별 대기열에 넣고 fan-out 풀에서 클라이언트 단위로 비우므로,
+ * 느린 클라이언트는 자기 대기열만 밀리고 (가득 차거나 전송이 send-timeout-ms를 넘기면 끊어 재연결 유도)
+ * 다른 클라이언트나 다른 회사의 알림을 막지 않는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeEventService implements MessageListener {
+    public static final String CHANNEL = "company:events";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    // 클라이언트(EventSource)는 끊기면 자동으로 다시 연결함
+    @Value("${events.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${events.sse.fanout-threads:2}")
+    private int fanoutThreads;
+
+    // 전송이 막힌 클라이언트가 스레드를 잡고 있어도 다른 클라이언트가 보낼 수 있도록 늘어나는 최대 스레드 수
+    @Value("${events.sse.fanout-max-threads:32}")
+    private int fanoutMaxThreads;
+
+    // 클라이언트별 대기 알림 수, 넘치면 그 클라이언트만 끊음
+    @Value("${events.sse.client-queue-capacity:100}")
+    private int clientQueueCapacity;
+
+    // 한 번의 전송이 이보다 오래 걸리면 느린 클라이언트로 보고 더 이상 보내지 않음
+    @Value("${events.sse.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private final Map<Long, Set<Client>> clients = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor fanout;
+
+    // 연결 하나와 그 연결의 전송 대기열 (한 번에 한 스레드만 비움)
+    private static final class Client {
+        private final Long companyId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long sendingSince;
+        private volatile boolean closed;
+
+        private Client(Long companyId, SseEmitter emitter, int capacity) {
+            this.companyId = companyId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        fanout = new ThreadPoolExecutor(
+                fanoutThreads, Math.max(fanoutThreads, fanoutMaxThreads),
+                60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sse-fanout-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanout.shutdown();
+        clients.values().forEach(set -> set.forEach(client -> client.emitter.complete()));
+    }
+
+    public SseEmitter subscribe(Long companyId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Client client = new Client(companyId, emitter, clientQueueCapacity);
+        clients.computeIfAbsent(companyId, id -> ConcurrentHashMap.newKeySet()).add(client);
+        emitter.onCompletion(() -> detach(client));
+        emitter.onTimeout(() -> detach(client));
+        emitter.onError(error -> detach(client));
+
+        // 연결 직후 한 번 보내 응답 헤더를 내보내고 (프록시 버퍼링 방지) 연결 성공을 알림
+        try {
+            emitter.send(SseEmitter.event().name("connected").data("{}", MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * 변경 알림 (트랜잭션 안이면 커밋 이후, 아니면 즉시 전파)
+     */
+    public void publish(Long companyId, ChangeEvent.Type type, Collection<Long> productIds, Collection<String> countries) {
+        ChangeEvent event = new ChangeEvent(companyId, type, List.copyOf(productIds), List.copyOf(countries),
+                LocalDateTime.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(event);
+                }
+            });
+        } else {
+            broadcast(event);
+        }
+    }
+
+    private void broadcast(ChangeEvent event) {
+        String payload = objectMapper.writeValueAsString(event);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, payload);
+        } catch (Exception e) {
+            // 전파에 실패해도 이 노드에 연결된 클라이언트에게는 보냄 (다른 노드는 다음 알림/재연결 때 다시 조회)
+            log.warn("변경 알림 전파 실패: {}", e.getMessage());
+            deliver(event.companyId(), event.type().name(), payload);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            ChangeEvent event = objectMapper.readValue(payload, ChangeEvent.class);
+            deliver(event.companyId(), event.type().name(), payload);
+        } catch (JacksonException e) {
+            log.warn("변경 알림을 읽을 수 없습니다: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(Long companyId, String name, String payload) {
+        Set<Client> targets = clients.get(companyId);
+        if (targets == null || targets.isEmpty()) return;
+        targets.forEach(client -> enqueue(client, SseEmitter.event().name(name).data(payload, MediaType.APPLICATION_JSON)));
+    }
+
+    // 프록시/로드밸런서의 유휴 연결 종료를 막고, 끊긴 클라이언트와 전송이 멈춘 클라이언트를 정리
+    @Scheduled(fixedDelayString = "${events.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        clients.values().forEach(set -> set.forEach(client -> {
+            long since = client.sendingSince;
+            if (since > 0 && now - since > sendTimeoutMs) {
+                log.warn("SSE 전송이 {}ms 넘게 끝나지 않아 연결을 정리합니다 (companyId={})", now - since, client.companyId);
+                close(client);
+            } else if (client.queue.isEmpty()) {
+                enqueue(client, SseEmitter.event().comment("ping"));
+            }
+        }));
+    }
+
+    private void enqueue(Client client, SseEmitter.SseEventBuilder event) {
+        if (client.closed) return;
+        if (!client.queue.offer(event)) {
+            // 알림이 계속 밀리는 클라이언트는 끊음 (재연결 후 다시 조회)
+            log.warn("SSE 클라이언트 대기열이 가득 차 연결을 정리합니다 (companyId={})", client.companyId);
+            close(client);
+        }
+        schedule(client);
+    }
+
+    private void schedule(Client client) {
+        if (!client.scheduled.compareAndSet(false, true)) return;
+        try {
+            fanout.execute(() -> drain(client));
+        } catch (RejectedExecutionException e) {
+            // 스레드가 모두 사용 중이면 대기열은 그대로 두고 다음 알림/heartbeat 때 다시 시도
+            client.scheduled.set(false);
+        }
+    }
+
+    private void drain(Client client) {
+        while (true) {
+            if (client.closed) {
+                // 전송 중이 아닐 때 닫아야 SseEmitter 잠금에서 기다리지 않음
+                client.queue.clear();
+                client.emitter.complete();
+                return;
+            }
+            SseEmitter.SseEventBuilder event = client.queue.poll();
+            if (event == null) {
+                client.scheduled.set(false);
+                // 비우는 사이 들어온 알림이 있으면 이어서 처리
+                if ((client.queue.isEmpty() && !client.closed) || !client.scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            client.sendingSince = System.currentTimeMillis();
+            try {
+                client.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // 끊긴 연결 (onError/onCompletion에서 목록에서 제거됨)
+                client.closed = true;
+                client.queue.clear();
+                client.emitter.completeWithError(e);
+                return;
+            } finally {
+                client.sendingSince = 0;
+            }
+        }
+    }
+
+    // 더 이상 알림을 넣지 않고, 진행 중인 전송이 끝나면 drain에서 연결을 닫음
+    private void close(Client client) {
+        client.closed = true;
+        detach(client);
+        schedule(client);
+    }
+
+    private void detach(Client client) {
+        clients.computeIfPresent(client.companyId, (id, current) -> {
+            current.remove(client);
+            return current.isEmpty() ? null : current;
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.domain.ComplianceResult;
+import com.aivle.cosy.domain.Log;
+import com.aivle.cosy.domain.Product;
+import com.aivle.cosy.repository.ComplianceResultRepository;
+import com.aivle.cosy.repository.LogRepository;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 성분 규제 분석 결과 캐시.
+ * 분석 결과가 Log에 기록될 때 (국가, 배합 해시) 단위로 저장해 두고,
+ * 같은 배합의 제품이 생성/수정되면 저장된 결과로 국가별 Log를 미리 채운다.
+ * 배합이 바뀌면 해시도 바뀌므로 별도 무효화 없이 새 배합은 다시 분석된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ComplianceCacheService {
+    // 같은 (국가, 배합)이면 최신 분석 결과로 덮어씀
+    private static final String UPSERT = "insert into compliance_results "
+            + "(country, ingredient_hash, ingredient_status, cautious_ingredient, ingredient_law, upd_date) "
+            + "values (?, ?, ?, ?, ?, ?) "
+            + "on duplicate key update ingredient_status = values(ingredient_status), "
+            + "cautious_ingredient = values(cautious_ingredient), ingredient_law = values(ingredient_law), "
+            + "upd_date = values(upd_date)";
+
+    private final ComplianceResultRepository complianceResultRepository;
+    private final LogRepository logRepository;
+    private final IngredientNormalizer normalizer;
+    private final JdbcTemplate jdbcTemplate;
+
+    public String hashOf(String fullIngredient) {
+        return normalizer.formulationHash(fullIngredient);
+    }
+
+    public record Entry(Log.Country country, String hash, Log.ApprovalStatus status,
+                        String cautiousIngredient, String ingredientLaw) {
+    }
+
+    /**
+     * 성분 분석 결과를 (국가, 배합 해시) 캐시에 저장
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void store(Log.Country country, String hash, Log.ApprovalStatus status, String cautiousIngredient, String ingredientLaw) {
+        storeAll(List.of(new Entry(country, hash, status, cautiousIngredient, ingredientLaw)));
+    }
+
+    /**
+     * 여러 결과를 JDBC batch 한 번으로 저장 (해시가 없는 결과는 제외)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void storeAll(List<Entry> entries) {
+        List<Entry> valid = entries.stream().filter(entry -> entry.hash() != null && entry.status() != null).toList();
+        if (valid.isEmpty()) return;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT, valid, valid.size(), (ps, entry) -> {
+            ps.setString(1, entry.country().name());
+            ps.setString(2, entry.hash());
+            ps.setString(3, entry.status().name());
+            ps.setString(4, entry.cautiousIngredient());
+            ps.setString(5, entry.ingredientLaw());
+            ps.setTimestamp(6, now);
+        });
+    }
+
+    /**
+     * 같은 배합의 분석 결과가 있으면 제품의 국가별 Log를 채움
+     * @return 채운 국가 수
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int prefill(Product product) {
+        String hash = hashOf(product.getFullIngredient());
+        if (hash == null) return 0;
+        List<ComplianceResult> cached = complianceResultRepository.findByIngredientHash(hash);
+        LocalDateTime now = LocalDateTime.now();
+        for (ComplianceResult result : cached) {
+            logRepository.upsertIngredient(product.getId(), product.getCompany().getId(), result.getCountry().name(),
+                    result.getIngredientStatus().name(), result.getCautiousIngredient(), result.getIngredientLaw(), hash, now);
+        }
+        if (!cached.isEmpty()) {
+            log.debug("성분 분석 캐시 적용 (productId={}, countries={})", product.getId(), cached.size());
+        }
+        return cached.size();
+    }
+}
@@ -0,0 +1,179 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.domain.Log;
+import com.aivle.cosy.exception.BusinessException;
+import com.aivle.cosy.exception.CommonErrorCode;
+import com.aivle.cosy.util.CsvWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * 분석 기록 / 제품 내보내기 (CSV / NDJSON, gzip 선택).
+ * 엔티티나 목록을 만들지 않고 forward-only 커서로 한 행씩 읽어 바로 응답 스트림에 쓰므로
+ * 행 수와 관계없이 메모리 사용량이 일정하다.
+ * fetch-size가 0 이하면 MySQL 스트리밍 모드(Integer.MIN_VALUE), 양수면 useCursorFetch=true 연결에서 그 크기만큼씩 가져온다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+    private static final String LOG_SELECT =
+            "select l.log_id, l.product_id, p.name, l.country, l.ingredient_status, l.cautious_ingredient, "
+                    + "l.ingredient_law, l.marketing_status, l.marketing_law, l.upd_date "
+                    + "from log l join products p on p.id = l.product_id where l.company_id = ?";
+    private static final List<String> LOG_COLUMNS = List.of("logId", "productId", "productName", "country",
+            "ingredientStatus", "cautiousIngredient", "ingredientLaw", "marketingStatus", "marketingLaw", "updDate");
+
+    private static final String PRODUCT_SELECT =
+            "select id, name, type, status, full_ingredient, reg_date, upd_date from products where company_id = ? order by id";
+    // 제품 가져오기(CSV/NDJSON)와 같은 이름이라 내보낸 파일을 그대로 다시 가져올 수 있음
+    private static final List<String> PRODUCT_COLUMNS =
+            List.of("id", "name", "type", "status", "fullIngredient", "regDate", "updDate");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.fetch-size:0}")
+    private int fetchSize;
+
+    public enum Format {
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson"));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public static Format from(String value) {
+            try {
+                return value == null ? CSV : valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException(CommonErrorCode.INVALID_PARAMETER, "format은 csv 또는 ndjson이어야 합니다.");
+            }
+        }
+
+        public MediaType mediaType(boolean gzip) {
+            return gzip ? MediaType.parseMediaType("application/gzip") : mediaType;
+        }
+
+        // 예: logs-20261018.csv.gz
+        public String contentDisposition(String baseName, boolean gzip) {
+            String fileName = baseName + "-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE)
+                    + "." + extension + (gzip ? ".gz" : "");
+            return ContentDisposition.attachment().filename(fileName).build().toString();
+        }
+    }
+
+    /**
+     * 회사의 분석 기록 전체 (country, updatedSince는 선택 조건)
+     */
+    public void exportLogs(Long companyId, Log.Country country, LocalDateTime updatedSince,
+                           Format format, boolean gzip, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(LOG_SELECT);
+        List<Object> args = new ArrayList<>(List.of(companyId));
+        if (country != null) {
+            sql.append(" and l.country = ?");
+            args.add(country.name());
+        }
+        if (updatedSince != null) {
+            sql.append(" and l.upd_date >= ?");
+            args.add(Timestamp.valueOf(updatedSince));
+        }
+        sql.append(" order by l.log_id");
+        long rows = export(sql.toString(), args, LOG_COLUMNS, format, gzip, out);
+        log.info("분석 기록 내보내기 완료 (companyId={}, format={}, rows={})", companyId, format, rows);
+    }
+
+    public void exportProducts(Long companyId, Format format, boolean gzip, OutputStream out) throws IOException {
+        long rows = export(PRODUCT_SELECT, List.of(companyId), PRODUCT_COLUMNS, format, gzip, out);
+        log.info("제품 내보내기 완료 (companyId={}, format={}, rows={})", companyId, format, rows);
+    }
+
+    // 조회 컬럼 순서 = columns 순서
+    private long export(String sql, List<Object> args, List<String> columns, Format format, boolean gzip,
+                        OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        long[] rows = {0};
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 65536)) {
+            CsvWriter csv = new CsvWriter(writer);
+            if (format == Format.CSV) {
+                csv.writeBom();
+                csv.writeRecord(columns.toArray());
+            }
+
+            Object[] values = new Object[columns.size()];
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize > 0 ? fetchSize : Integer.MIN_VALUE);
+                for (int i = 0; i < args.size(); i++) {
+                    statement.setObject(i + 1, args.get(i));
+                }
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = value(rs, i + 1);
+                }
+                try {
+                    if (format == Format.CSV) {
+                        csv.writeRecord(values);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(toMap(columns, values)));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    // 클라이언트가 연결을 끊은 경우 등 (조회 중단)
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rows[0];
+    }
+
+    private static Object value(ResultSet rs, int index) throws SQLException {
+        Object value = rs.getObject(index);
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString() : value;
+    }
+
+    private static Map<String, Object> toMap(List<String> columns, Object[] values) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            row.put(columns.get(i), values[i]);
+        }
+        return row;
+    }
+}
@@ -0,0 +1,235 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.domain.Log;
+import com.aivle.cosy.domain.Product;
+import com.aivle.cosy.dto.ProductResponse;
+import com.aivle.cosy.repository.LogRepository;
+import com.aivle.cosy.util.MinHash;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 유사 배합 탐지 (MinHash + LSH).
+ * 회사별로 제품의 정규화된 성분 집합을 MinHash 시그니처의 band 키로 색인해 두고,
+ * 같은 band 키를 가진 후보만 정확한 Jaccard 유사도로 검증한다.
+ * 색인은 회사의 첫 조회 때 DB에서 만들고, 이후 성분 색인 갱신/제품 삭제 시 증분으로 반영한다.
+ * 메모리에는 최근 조회한 max-companies개 회사만 유지한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FormulationSimilarityService {
+    private final JdbcTemplate jdbcTemplate;
+    private final LogRepository logRepository;
+    private final IngredientNormalizer normalizer;
+
+    // 20 band x 5 row: Jaccard 0.55 부근부터 후보가 되고 0.8 이상은 거의 놓치지 않음
+    @Value("${formulation.similarity.bands:20}")
+    private int bands;
+
+    @Value("${formulation.similarity.rows:5}")
+    private int rows;
+
+    @Value("${formulation.similarity.threshold:0.8}")
+    private double threshold;
+
+    @Value("${formulation.similarity.max-companies:200}")
+    private int maxCompanies;
+
+    // 검증할 최대 후보 수 (유사도 순)
+    @Value("${formulation.similarity.max-candidates:20}")
+    private int maxCandidates;
+
+    private final Map<Long, CompanyIndex> indexes = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CompanyIndex> eldest) {
+                    return size() > maxCompanies;
+                }
+            });
+
+    /**
+     * 성분 색인이 갱신된 제품 반영 (색인이 메모리에 없는 회사는 다음 조회 때 DB에서 읽음)
+     */
+    public void put(Long companyId, Long productId, List<String> names) {
+        CompanyIndex index = indexes.get(companyId);
+        if (index != null) {
+            index.put(productId, entry(names), true);
+        }
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋되면 삭제된 제품을 색인에서 제거
+     */
+    public void removeAfterCommit(Long companyId, Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        Runnable remove = () -> {
+            CompanyIndex index = indexes.get(companyId);
+            if (index != null) {
+                index.remove(ids);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove.run();
+            }
+        });
+    }
+
+    /**
+     * 성분 분석이 끝난 제품 중 배합이 가장 비슷한 제품의 국가별 분석 결과 제안
+     * 추가/제외된 성분만 다시 분석하면 되도록 차이를 함께 돌려준다.
+     * @return 임계값 이상인 분석 완료 제품이 없으면 null
+     */
+    public ProductResponse.SimilarAnalysisResponse findSimilarAnalysis(Product product) {
+        Long companyId = product.getCompany().getId();
+        Entry target = entry(normalizer.canonicalize(product.getFullIngredient()));
+        if (target.names().isEmpty()) return null;
+
+        List<Match> matches = indexFor(companyId).candidates(target).entrySet().stream()
+                .filter(candidate -> !candidate.getKey().equals(product.getId()))
+                .map(candidate -> new Match(candidate.getKey(), candidate.getValue(),
+                        MinHash.jaccard(target.names(), candidate.getValue().names())))
+                .filter(match -> match.similarity() >= threshold)
+                .sorted(Comparator.comparingDouble(Match::similarity).reversed())
+                .limit(maxCandidates)
+                .toList();
+        if (matches.isEmpty()) return null;
+
+        // 후보들의 분석 결과를 한 번에 조회해 가장 유사한 분석 완료 제품 선택
+        Map<Long, List<Log>> analysed = logRepository.findByProductIdInAndIngredientStatusIsNotNull(
+                        matches.stream().map(Match::productId).toList()).stream()
+                .collect(Collectors.groupingBy(log -> log.getProduct().getId()));
+        for (Match match : matches) {
+            List<Log> logs = analysed.get(match.productId());
+            if (logs == null) continue;
+
+            Log first = logs.get(0);
+            return new ProductResponse.SimilarAnalysisResponse(
+                    match.productId(),
+                    first.getProduct().getName(),
+                    match.similarity(),
+                    difference(target.names(), match.entry().names()),
+                    difference(match.entry().names(), target.names()),
+                    logs.stream()
+                            .map(log -> new ProductResponse.CountryAnalysis(log.getCountry(), log.getIngredientStatus(),
+                                    log.getCautiousIngredient(), log.getIngredientLaw()))
+                            .toList());
+        }
+        return null;
+    }
+
+    private CompanyIndex indexFor(Long companyId) {
+        CompanyIndex index = indexes.get(companyId);
+        if (index != null) return index;
+
+        CompanyIndex created = new CompanyIndex();
+        // 적재가 끝날 때까지 같은 색인의 조회/갱신은 대기
+        synchronized (created) {
+            CompanyIndex existing;
+            synchronized (indexes) {
+                existing = indexes.putIfAbsent(companyId, created);
+            }
+            if (existing != null) return existing;
+            load(companyId, created);
+        }
+        return created;
+    }
+
+    private void load(Long companyId, CompanyIndex index) {
+        long started = System.currentTimeMillis();
+        int[] count = {0};
+        jdbcTemplate.query("select id, full_ingredient from products where company_id = ? and full_ingredient is not null",
+                rs -> {
+                    List<String> names = normalizer.canonicalize(rs.getString("full_ingredient"));
+                    if (!names.isEmpty()) {
+                        // 적재 중 들어온 최신 갱신은 덮어쓰지 않음
+                        index.put(rs.getLong("id"), entry(names), false);
+                        count[0]++;
+                    }
+                }, companyId);
+        log.info("유사 배합 색인 적재 (companyId={}, products={}, {}ms)",
+                companyId, count[0], System.currentTimeMillis() - started);
+    }
+
+    private Entry entry(List<String> names) {
+        Set<String> set = new HashSet<>(names);
+        long[] keys = set.isEmpty() ? new long[0] : MinHash.bandKeys(MinHash.signature(set, bands * rows), bands);
+        return new Entry(keys, set);
+    }
+
+    // from에만 있는 성분 (이름순)
+    private static List<String> difference(Set<String> from, Set<String> exclude) {
+        return from.stream().filter(name -> !exclude.contains(name)).sorted().toList();
+    }
+
+    private record Entry(long[] bandKeys, Set<String> names) {
+    }
+
+    private record Match(Long productId, Entry entry, double similarity) {
+    }
+
+    /**
+     * 회사 하나의 LSH 색인 (band 키 -> 제품 ID 목록)
+     */
+    private static class CompanyIndex {
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final Map<Long, Set<Long>> buckets = new HashMap<>();
+
+        synchronized void put(Long productId, Entry entry, boolean overwrite) {
+            if (!overwrite && entries.containsKey(productId)) return;
+            removeOne(productId);
+            if (entry.names().isEmpty()) return;
+            entries.put(productId, entry);
+            for (long key : entry.bandKeys()) {
+                buckets.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(productId);
+            }
+        }
+
+        synchronized void remove(Collection<Long> productIds) {
+            productIds.forEach(this::removeOne);
+        }
+
+        synchronized Map<Long, Entry> candidates(Entry target) {
+            Map<Long, Entry> candidates = new HashMap<>();
+            for (long key : target.bandKeys()) {
+                for (Long productId : buckets.getOrDefault(key, Set.of())) {
+                    candidates.putIfAbsent(productId, entries.get(productId));
+                }
+            }
+            return candidates;
+        }
+
+        private void removeOne(Long productId) {
+            Entry previous = entries.remove(productId);
+            if (previous == null) return;
+            for (long key : previous.bandKeys()) {
+                Set<Long> bucket = buckets.get(key);
+                if (bucket != null && bucket.remove(productId) && bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.domain.ImageObject;
+import com.aivle.cosy.repository.ImageObjectRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 내용 주소(SHA-256) 기반 이미지 저장소.
+ * 이미지 key는 {prefix}/cas/{sha256}.{ext} 형태라 같은 내용이면 같은 key가 되고,
+ * image_objects의 참조 수로 여러 제품이 하나의 S3 객체를 공유한다.
+ * 변환본(썸네일 등)은 원본 key에서 파생되므로 원본의 마지막 참조가 사라질 때 같이 삭제된다.
+ * UUID key로 저장된 기존 이미지는 참조 수 없이 바로 삭제한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImageStorageService {
+    private static final String CAS_DIR = "/cas/";
+    private static final String CAS_VARIANT_DIR = "/cas/variants/";
+    private static final Pattern CONTENT_NAME = Pattern.compile("[0-9a-f]{64}(\\.[a-z]+)?");
+
+    private final ImageObjectRepository imageObjectRepository;
+    private final StorageOutboxService storageOutbox;
+    private final S3Service s3Service;
+
+    // {prefix}/cas/{sha256}.{ext}
+    public String contentKey(String prefix, String sha256Hex, String contentType) {
+        String normalized = prefix.endsWith("/") ? prefix.substring(0, prefix.length() - 1) : prefix;
+        return normalized + CAS_DIR + sha256Hex + extension(contentType);
+    }
+
+    public boolean isContentAddressed(String key) {
+        return key != null && key.contains(CAS_DIR);
+    }
+
+    // prefix 바로 아래의 원본 key 형식인지 ({prefix}/cas/{sha256}.{ext}, 변환본 제외)
+    public boolean isContentKey(String prefix, String key) {
+        String normalized = prefix.endsWith("/") ? prefix.substring(0, prefix.length() - 1) : prefix;
+        String base = normalized + CAS_DIR;
+        return key != null && key.startsWith(base)
+                && CONTENT_NAME.matcher(key.substring(base.length())).matches();
+    }
+
+    /**
+     * 참조 추가
+     * @return 이미 S3에 올라가 있어 업로드를 생략해도 되면 true
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean acquire(String key) {
+        imageObjectRepository.acquire(key, LocalDateTime.now());
+        return isUploaded(key);
+    }
+
+    public boolean isUploaded(String key) {
+        return imageObjectRepository.findByObjectKey(key).map(ImageObject::isUploaded).orElse(false);
+    }
+
+    public boolean isReferenced(String key) {
+        return imageObjectRepository.isReferenced(key);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markUploaded(String key) {
+        imageObjectRepository.markUploaded(key);
+    }
+
+    /**
+     * 제품이 더 이상 쓰지 않는 이미지 URL 정리 (커밋 이후 outbox relay가 S3에서 삭제)
+     * 내용 주소 이미지는 참조 수를 줄이고, 마지막 참조일 때만 원본과 변환본을 삭제한다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Collection<String> fileUrls) {
+        List<String> deleteKeys = new ArrayList<>();
+        for (String url : fileUrls) {
+            String key = s3Service.extractKeyFromUrl(url);
+            if (key == null || key.isBlank()) continue;
+
+            if (!isContentAddressed(key)) {
+                deleteKeys.add(key);
+            } else if (!key.contains(CAS_VARIANT_DIR)) {
+                imageObjectRepository.release(key);
+                if (!imageObjectRepository.isReferenced(key)) {
+                    enqueueContentDelete(key);
+                }
+            }
+            // 내용 주소 변환본은 원본과 함께 삭제되므로 따로 처리하지 않음
+        }
+        storageOutbox.enqueueDelete(deleteKeys);
+    }
+
+    /**
+     * 참조가 모두 해제된 뒤 업로드가 끝난 내용 주소 이미지 삭제 예약
+     * (relay가 삭제 직전에 다시 참조되었는지 확인하므로 그 사이 같은 이미지를 쓰게 되어도 안전)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteIfUnreferenced(String key) {
+        imageObjectRepository.insertUnreferenced(key, LocalDateTime.now());
+        if (!isReferenced(key)) {
+            enqueueContentDelete(key);
+        }
+    }
+
+    // 원본과 변환본 삭제 예약, relay는 원본 행(guard)을 잠근 채 참조가 없을 때만 삭제
+    private void enqueueContentDelete(String key) {
+        List<String> keys = new ArrayList<>();
+        keys.add(key);
+        keys.addAll(ImageVariantService.variantKeys(key));
+        storageOutbox.enqueueGuardedDelete(key, keys);
+    }
+
+    private static String extension(String contentType) {
+        if (contentType == null) return "";
+        return switch (contentType.toLowerCase()) {
+            case "image/jpeg" -> ".jpg";
+            case "image/png" -> ".png";
+            case "image/webp" -> ".webp";
+            case "image/gif" -> ".gif";
+            default -> "";
+        };
+    }
+}
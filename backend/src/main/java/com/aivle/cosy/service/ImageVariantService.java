@@ -0,0 +1,257 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 제품 이미지 변환본(썸네일/중간 크기) 생성.
+ * 원본 업로드가 끝난 뒤 워커 풀에서 원본을 한 번만 디코딩하고, 크기별로 리사이즈해 JPEG로 다시 인코딩한다.
+ * 새로 그린 픽셀만 인코딩하므로 EXIF 등 원본 메타데이터는 남지 않는다.
+ * 변환본은 원본 key에서 파생된 key(.../variants/{원본파일명}_{variant}.jpg)에 저장한다.
+ * 내용 주소 이미지는 변환본도 공유되므로, 이미 만들어져 있으면 다시 생성하지 않는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageVariantService {
+    private final S3Service s3Service;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageStorageService imageStorage;
+    private final StorageOutboxService storageOutbox;
+
+    // 변환본 종류 (긴 변 기준 최대 픽셀)
+    enum Variant {
+        THUMB(200), MEDIUM(800);
+
+        private final int maxEdge;
+
+        Variant(int maxEdge) {
+            this.maxEdge = maxEdge;
+        }
+    }
+
+    @Value("${product.image-variant.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${product.image-variant.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${product.image-variant.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    // 디코딩 전 픽셀 수 제한 (압축 폭탄 방지)
+    @Value("${product.image-variant.max-pixels:40000000}")
+    private long maxPixels;
+
+    private ThreadPoolExecutor workers;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variant-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // 큐가 가득 차면 변환을 건너뜀 (원본 이미지로 계속 서비스 가능)
+                (runnable, executor) -> log.warn("이미지 변환 대기열이 가득 차 작업을 건너뜀"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * 변환본 생성 요청. 원본 업로드/연결이 커밋된 이후 호출해야 한다.
+     * @param productId 제품 ID
+     * @param imageUrl 제품의 현재 원본 이미지 URL
+     */
+    public void submit(Long productId, String imageUrl) {
+        if (imageUrl == null || imageUrl.isBlank()) return;
+        workers.execute(() -> generate(productId, imageUrl));
+    }
+
+    private void generate(Long productId, String imageUrl) {
+        String sourceKey = s3Service.extractKeyFromUrl(imageUrl);
+        // 내용 주소 이미지의 변환본은 같은 이미지를 쓰는 제품들이 공유하므로 여기서 지우지 않음
+        boolean shared = imageStorage.isContentAddressed(sourceKey);
+        List<String> uploaded = new ArrayList<>();
+        try {
+            if (shared && applyExistingVariants(productId, imageUrl, sourceKey)) {
+                return;
+            }
+
+            BufferedImage source;
+            try (InputStream in = s3Service.openObject(sourceKey)) {
+                source = decode(in);
+            }
+            if (source == null) {
+                log.info("변환할 수 없는 이미지 형식, 원본만 사용 (productId={}, key={})", productId, sourceKey);
+                return;
+            }
+
+            for (Variant variant : Variant.values()) {
+                byte[] jpeg = encodeJpeg(resize(source, variant.maxEdge));
+                uploaded.add(s3Service.uploadBytes(variantKey(sourceKey, variant), jpeg, "image/jpeg"));
+            }
+
+            // 그 사이 이미지가 바뀌었거나 제품이 삭제됐으면 반영하지 않고 변환본 삭제 예약 (공유 변환본은 유지)
+            transactionTemplate.executeWithoutResult(status -> {
+                boolean applied = productRepository.findById(productId)
+                        .map(product -> product.applyVariants(imageUrl, uploaded.get(0), uploaded.get(1)))
+                        .orElse(false);
+                if (!applied && !shared) {
+                    storageOutbox.enqueueDelete(uploaded);
+                }
+            });
+        } catch (Exception e) {
+            log.error("제품 이미지 변환 실패 (productId={}, key={})", productId, sourceKey, e);
+            if (!shared && !uploaded.isEmpty()) {
+                deleteLater(uploaded);
+            }
+        }
+    }
+
+    // 같은 이미지의 변환본이 이미 있으면 디코딩 없이 URL만 연결
+    private boolean applyExistingVariants(Long productId, String imageUrl, String sourceKey) {
+        List<String> keys = variantKeys(sourceKey);
+        if (keys.stream().anyMatch(key -> s3Service.headObject(key).isEmpty())) {
+            return false;
+        }
+        transactionTemplate.executeWithoutResult(status -> productRepository.findById(productId)
+                .ifPresent(product -> product.applyVariants(imageUrl, s3Service.toUrl(keys.get(0)), s3Service.toUrl(keys.get(1)))));
+        return true;
+    }
+
+    // 헤더로 크기를 먼저 확인한 뒤 한 번만 디코딩
+    private BufferedImage decode(InputStream in) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            if (input == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) return null;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("이미지 픽셀 수 초과로 변환 생략: {}", pixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 긴 변이 maxEdge가 되도록 축소 (확대는 하지 않음), 큰 비율은 절반씩 나눠 줄여 품질 유지
+    static BufferedImage resize(BufferedImage source, int maxEdge) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            current = draw(current, currentWidth, currentHeight);
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    // JPEG는 알파가 없으므로 흰 배경 위에 RGB로 그림
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            // 메타데이터 없이 픽셀만 기록
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // 원본 key에서 파생되는 변환본 key 목록 (Variant 선언 순서)
+    static List<String> variantKeys(String sourceKey) {
+        List<String> keys = new ArrayList<>();
+        for (Variant variant : Variant.values()) {
+            keys.add(variantKey(sourceKey, variant));
+        }
+        return keys;
+    }
+
+    // products/1/uuid-a.png -> products/1/variants/uuid-a_thumb.jpg
+    static String variantKey(String sourceKey, Variant variant) {
+        int slash = sourceKey.lastIndexOf('/');
+        String dir = slash < 0 ? "" : sourceKey.substring(0, slash + 1);
+        String fileName = sourceKey.substring(slash + 1);
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        return dir + "variants/" + baseName + "_" + variant.name().toLowerCase() + ".jpg";
+    }
+
+    // 다른 S3 삭제와 같이 outbox로 예약 (실패해도 relay가 재시도)
+    private void deleteLater(List<String> urls) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> storageOutbox.enqueueDelete(urls));
+        } catch (Exception e) {
+            log.warn("이미지 변환본 삭제 예약 실패: {}", urls, e);
+        }
+    }
+}
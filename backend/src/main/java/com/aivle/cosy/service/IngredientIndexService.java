@@ -0,0 +1,238 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.domain.Ingredient;
+import com.aivle.cosy.repository.IngredientRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 성분 역색인 (ingredients, product_ingredients) 관리.
+ * 제품이 생성/수정되면 커밋 이후 백그라운드에서 fullIngredient를 정규화해 posting을 갱신한다.
+ * 갱신은 기존 posting과의 차이만 반영하며(추가/순서 변경은 upsert, 빠진 성분만 삭제),
+ * 아직 색인되지 않은 기존 제품은 기동 시 / 대량 가져오기 이후 backfill로 채운다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IngredientIndexService {
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IngredientNormalizer normalizer;
+    private final IngredientRepository ingredientRepository;
+    private final FormulationSimilarityService similarityIndex;
+
+    @Value("${ingredient.index.worker-threads:1}")
+    private int workerThreads;
+
+    @Value("${ingredient.index.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${ingredient.index.backfill-batch-size:500}")
+    private int backfillBatchSize;
+
+    private ThreadPoolExecutor workers;
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        // 대기열이 가득 차면 호출 스레드에서 직접 처리 (색인 누락 대신 backpressure)
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ingredient-index-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋되면 제품 성분 색인 갱신
+     */
+    public void reindexAfterCommit(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            workers.execute(() -> reindexQuietly(productId));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                workers.execute(() -> reindexQuietly(productId));
+            }
+        });
+    }
+
+    /**
+     * 삭제되는 제품의 posting 제거 (호출한 트랜잭션 안에서 실행)
+     */
+    public void removeProducts(Collection<Long> productIds) {
+        if (productIds.isEmpty()) return;
+        jdbcTemplate.update("delete from product_ingredients where product_id in (" + placeholders(productIds.size()) + ")",
+                productIds.toArray());
+    }
+
+    private void reindexQuietly(Long productId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> reindex(productId));
+        } catch (Exception e) {
+            log.error("성분 색인 갱신 실패 (productId={})", productId, e);
+        }
+    }
+
+    private void reindex(Long productId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "select company_id, full_ingredient from products where id = ?", productId);
+        if (rows.isEmpty()) {
+            removeProducts(List.of(productId));
+            return;
+        }
+        Long companyId = ((Number) rows.get(0).get("company_id")).longValue();
+        String fullIngredient = (String) rows.get(0).get("full_ingredient");
+
+        List<String> names = normalizer.canonicalize(fullIngredient).stream()
+                .filter(name -> name.length() <= MAX_NAME_LENGTH)
+                .toList();
+        Map<String, Long> ingredientIds = ensureIngredients(names);
+        similarityIndex.put(companyId, productId, names);
+
+        // 전성분 순서대로 (ingredient_id -> seq)
+        Map<Long, Integer> wanted = new LinkedHashMap<>();
+        for (String name : names) {
+            Long ingredientId = ingredientIds.get(name);
+            if (ingredientId != null) {
+                wanted.putIfAbsent(ingredientId, wanted.size());
+            }
+        }
+
+        List<Long> existing = jdbcTemplate.queryForList(
+                "select ingredient_id from product_ingredients where product_id = ?", Long.class, productId);
+        List<Long> removed = existing.stream().filter(id -> !wanted.containsKey(id)).toList();
+        if (!removed.isEmpty()) {
+            List<Object> args = new ArrayList<>();
+            args.add(productId);
+            args.addAll(removed);
+            jdbcTemplate.update("delete from product_ingredients where product_id = ? and ingredient_id in ("
+                    + placeholders(removed.size()) + ")", args.toArray());
+        }
+
+        if (!wanted.isEmpty()) {
+            List<Object> args = new ArrayList<>(wanted.size() * 4);
+            wanted.forEach((ingredientId, seq) -> {
+                args.add(productId);
+                args.add(ingredientId);
+                args.add(companyId);
+                args.add(seq);
+            });
+            jdbcTemplate.update("insert into product_ingredients (product_id, ingredient_id, company_id, seq) values "
+                    + String.join(", ", Collections.nCopies(wanted.size(), "(?, ?, ?, ?)"))
+                    + " on duplicate key update company_id = values(company_id), seq = values(seq)", args.toArray());
+        }
+    }
+
+    // 사전에 없는 성분은 추가하고 이름 -> id 반환
+    private Map<String, Long> ensureIngredients(List<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        if (names.isEmpty()) return ids;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object> args = new ArrayList<>(names.size() * 2);
+        for (String name : names) {
+            args.add(name);
+            args.add(now);
+        }
+        jdbcTemplate.update("insert ignore into ingredients (name, reg_date) values "
+                + String.join(", ", Collections.nCopies(names.size(), "(?, ?)")), args.toArray());
+
+        jdbcTemplate.query("select id, name from ingredients where name in (" + placeholders(names.size()) + ")",
+                rs -> {
+                    ids.put(rs.getString("name"), rs.getLong("id"));
+                }, names.toArray());
+        // DB collation 상 같은 이름으로 취급된 경우 (대소문자/악센트만 다른 이름)는 저장된 이름으로 매칭되지 않아 제외됨
+        return ids;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        backfillAsync();
+    }
+
+    /**
+     * 성분 posting이 하나도 없는 제품을 찾아 색인 (기존 데이터, 대량 가져오기 등)
+     */
+    public void backfillAsync() {
+        if (!backfillRunning.compareAndSet(false, true)) return;
+        Thread thread = new Thread(() -> {
+            try {
+                backfill();
+            } finally {
+                backfillRunning.set(false);
+            }
+        }, "ingredient-index-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void backfill() {
+        long lastId = 0;
+        int total = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "select p.id from products p where p.id > ? and p.full_ingredient is not null "
+                            + "and not exists (select 1 from product_ingredients pi where pi.product_id = p.id) "
+                            + "order by p.id limit ?", Long.class, lastId, backfillBatchSize);
+            if (ids.isEmpty()) break;
+            for (Long id : ids) {
+                reindexQuietly(id);
+            }
+            total += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+        if (total > 0) {
+            log.info("성분 색인 backfill 완료: {}건", total);
+        }
+    }
+
+    /**
+     * 성분명(한글/INCI/별칭 모두 가능) -> 사전의 ingredient id, 없으면 null
+     */
+    public Long findIngredientId(String name) {
+        if (name == null || name.isBlank()) return null;
+        return ingredientRepository.findByName(normalizer.resolve(name)).map(Ingredient::getId).orElse(null);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,165 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.util.HashUtils;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * 전성분 문자열을 성분 단위로 나누고 대표명으로 정규화.
+ * - 구분자: , ; · • | 、 줄바꿈 (괄호 안, 숫자 사이 쉼표(1,2-Hexanediol)는 나누지 않음)
+ * - 정규화: NFKC, 소문자, 함량(2%, 100ppm) 제거, 한글 이름의 공백 제거
+ * - 동의어: ingredient/synonyms.txt 기준으로 한글명/INCI/별칭을 하나의 대표명으로 통일
+ * - "정제수(Water)"처럼 괄호로 병기된 이름은 둘 중 사전에 있는 쪽을 사용
+ */
+@Component
+public class IngredientNormalizer {
+    private static final Pattern CONCENTRATION = Pattern.compile("\\d+(\\.\\d+)?\\s*(%|ppm)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern EDGE_PUNCTUATION = Pattern.compile("^[\\s*.\\-·]+|[\\s*.·]+$");
+    private static final Pattern HANGUL = Pattern.compile("[가-힣]");
+    private static final Pattern LABEL_PREFIX = Pattern.compile("^\\s*(전성분|성분|ingredients?)\\s*[:：]", Pattern.CASE_INSENSITIVE);
+
+    // 정규화된 별칭 -> 대표명
+    private final Map<String, String> synonyms;
+
+    public IngredientNormalizer() {
+        this(loadSynonyms("ingredient/synonyms.txt"));
+    }
+
+    public IngredientNormalizer(Map<String, String> synonyms) {
+        this.synonyms = synonyms;
+    }
+
+    /**
+     * 전성분 문자열 -> 대표명 목록 (표기 순서 유지, 중복 제거)
+     */
+    public List<String> canonicalize(String fullIngredient) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String token : tokenize(fullIngredient)) {
+            String name = resolve(token);
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * 배합 해시: 대표명을 정렬해 SHA-256 (표기, 순서, 중복이 달라도 같은 배합이면 같은 값)
+     * @return 성분이 하나도 없으면 null
+     */
+    public String formulationHash(String fullIngredient) {
+        List<String> names = canonicalize(fullIngredient);
+        if (names.isEmpty()) return null;
+        Collections.sort(names);
+        return HashUtils.sha256Hex(String.join("\n", names));
+    }
+
+    /**
+     * 성분 이름 하나 -> 대표명 (검색어 정규화에도 사용)
+     */
+    public String resolve(String token) {
+        String outside = token;
+        String inside = null;
+        int open = token.indexOf('(');
+        int close = token.lastIndexOf(')');
+        if (open > 0 && close > open) {
+            outside = token.substring(0, open) + token.substring(close + 1);
+            inside = token.substring(open + 1, close);
+        }
+
+        String normalizedOutside = normalize(outside);
+        String normalizedInside = inside == null ? "" : normalize(inside);
+        for (String candidate : new String[]{normalize(token), normalizedOutside, normalizedInside}) {
+            String canonical = synonyms.get(candidate);
+            if (canonical != null) return canonical;
+        }
+        return normalizedOutside.isEmpty() ? normalizedInside : normalizedOutside;
+    }
+
+    static List<String> tokenize(String fullIngredient) {
+        List<String> tokens = new ArrayList<>();
+        if (fullIngredient == null || fullIngredient.isBlank()) return tokens;
+
+        String text = Normalizer.normalize(fullIngredient, Normalizer.Form.NFKC);
+        text = LABEL_PREFIX.matcher(text).replaceFirst("");
+
+        StringBuilder current = new StringBuilder();
+        int depth = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == '[') depth++;
+            if ((c == ')' || c == ']') && depth > 0) depth--;
+
+            boolean separator = depth == 0 && (c == ';' || c == '·' || c == '•' || c == '|' || c == '、'
+                    || c == '\n' || c == '\r' || (c == ',' && !isDigitComma(text, i)));
+            if (separator) {
+                addToken(tokens, current);
+            } else {
+                current.append(c);
+            }
+        }
+        addToken(tokens, current);
+        return tokens;
+    }
+
+    static String normalize(String name) {
+        String value = Normalizer.normalize(name, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        value = value.replace('[', '(').replace(']', ')');
+        value = CONCENTRATION.matcher(value).replaceAll("");
+        value = WHITESPACE.matcher(value).replaceAll(" ");
+        value = EDGE_PUNCTUATION.matcher(value).replaceAll("");
+        if (HANGUL.matcher(value).find()) {
+            value = value.replace(" ", "");
+        }
+        return value.trim();
+    }
+
+    // 1,2-Hexanediol처럼 숫자 사이 쉼표는 이름의 일부
+    private static boolean isDigitComma(String text, int index) {
+        return index > 0 && index + 1 < text.length()
+                && Character.isDigit(text.charAt(index - 1)) && Character.isDigit(text.charAt(index + 1));
+    }
+
+    private static void addToken(List<String> tokens, StringBuilder current) {
+        String token = current.toString().trim();
+        if (!token.isEmpty()) {
+            tokens.add(token);
+        }
+        current.setLength(0);
+    }
+
+    private static Map<String, String> loadSynonyms(String path) {
+        Map<String, String> map = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(path).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] names = line.split("\\|");
+                String canonical = normalize(names[0]);
+                for (String name : names) {
+                    map.put(normalize(name), canonical);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("성분 동의어 사전을 읽을 수 없습니다: " + path, e);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,153 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.domain.Log;
+import jakarta.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 전성분 사전 검사 (LLM 분석 전 잠정 결과).
+ * 기본은 jar에 포함된 규칙(classpath:ingredient/rules/{US|JP|CN|EU}/*.txt, fastapi/app/data/ingredients와 같은 파일)을 사용한다.
+ * rules-dir을 지정하면 그 디렉터리({rules-dir}/{국가}/*.txt)를 읽고, 주기적으로 파일 변경 여부(수정 시각, 크기)를 확인해
+ * 바뀐 국가만 다시 컴파일한 뒤 참조를 교체한다.
+ * 검사는 교체된 불변 규칙으로만 수행되므로 다시 읽는 동안에도 멈추지 않는다.
+ */
+@Slf4j
+@Service
+public class IngredientPrescreenService {
+    private final Map<Log.Country, Loaded> ruleSets = new EnumMap<>(Log.Country.class);
+
+    private static final String CLASSPATH_RULES = "classpath*:ingredient/rules/%s/*.txt";
+
+    // 비어 있으면 classpath 규칙 사용 (다시 읽기 없음)
+    @Value("${ingredient.prescreen.rules-dir:}")
+    private String rulesDir;
+
+    private record Loaded(IngredientRuleSet ruleSet, String fingerprint) {
+    }
+
+    @PostConstruct
+    public void init() {
+        for (Log.Country country : Log.Country.values()) {
+            ruleSets.put(country, new Loaded(IngredientRuleSet.empty(), ""));
+        }
+        if (rulesDir == null || rulesDir.isBlank()) {
+            loadClasspath();
+        } else {
+            reloadIfChanged();
+        }
+        for (Log.Country country : Log.Country.values()) {
+            if (ruleSet(country).ruleCount() == 0) {
+                log.warn("성분 사전 검사 규칙이 없습니다. 이 국가는 판정하지 않습니다 (country={}, rulesDir={})",
+                        country, rulesDir == null || rulesDir.isBlank() ? "classpath" : rulesDir);
+            }
+        }
+    }
+
+    private void loadClasspath() {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        for (Log.Country country : Log.Country.values()) {
+            try {
+                List<IngredientRuleSet.Rule> rules = new ArrayList<>();
+                Map<IngredientRuleSet.Rule, List<String>> aliases = new HashMap<>();
+                for (Resource resource : resolver.getResources(String.format(CLASSPATH_RULES, country.name()))) {
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+                        IngredientRuleSet.parse(reader, rules, aliases);
+                    }
+                }
+                IngredientRuleSet ruleSet = IngredientRuleSet.compile(rules, aliases);
+                synchronized (ruleSets) {
+                    ruleSets.put(country, new Loaded(ruleSet, "classpath"));
+                }
+                log.info("성분 사전 검사 규칙 적재 (country={}, rules={})", country, ruleSet.ruleCount());
+            } catch (IOException e) {
+                log.warn("성분 사전 검사 규칙을 읽을 수 없습니다 (country={}): {}", country, e.getMessage());
+            }
+        }
+    }
+
+    public IngredientRuleSet ruleSet(Log.Country country) {
+        synchronized (ruleSets) {
+            return ruleSets.get(country).ruleSet();
+        }
+    }
+
+    /**
+     * 규칙 파일이 바뀐 국가만 다시 컴파일 (재시작 없이 반영)
+     */
+    @Scheduled(fixedDelayString = "${ingredient.prescreen.reload-interval-ms:30000}",
+            initialDelayString = "${ingredient.prescreen.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        if (rulesDir == null || rulesDir.isBlank()) return;
+        for (Log.Country country : Log.Country.values()) {
+            Path dir = Paths.get(rulesDir, country.name());
+            try {
+                List<Path> files = ruleFiles(dir);
+                String fingerprint = fingerprint(files);
+                synchronized (ruleSets) {
+                    if (fingerprint.equals(ruleSets.get(country).fingerprint())) continue;
+                }
+
+                IngredientRuleSet ruleSet = load(files);
+                synchronized (ruleSets) {
+                    ruleSets.put(country, new Loaded(ruleSet, fingerprint));
+                }
+                if (ruleSet.ruleCount() == 0) {
+                    log.warn("성분 사전 검사 규칙이 없습니다 (country={}, dir={})", country, dir);
+                } else {
+                    log.info("성분 사전 검사 규칙 적재 (country={}, rules={})", country, ruleSet.ruleCount());
+                }
+            } catch (IOException e) {
+                // 읽기 실패 시 기존 규칙 유지
+                log.warn("성분 사전 검사 규칙을 읽을 수 없습니다 (country={}, dir={}): {}", country, dir, e.getMessage());
+            }
+        }
+    }
+
+    // 디렉터리가 없으면 빈 목록 -> 기존 규칙이 있던 경우에만 바뀐 것으로 보고 경고 후 비움
+    private static List<Path> ruleFiles(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return List.of();
+        try (Stream<Path> paths = Files.list(dir)) {
+            return paths.filter(path -> path.toString().endsWith(".txt")).sorted().toList();
+        }
+    }
+
+    private static String fingerprint(List<Path> files) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (Path file : files) {
+            builder.append(file.getFileName()).append(':')
+                    .append(Files.getLastModifiedTime(file).toMillis()).append(':')
+                    .append(Files.size(file)).append(';');
+        }
+        return builder.toString();
+    }
+
+    private static IngredientRuleSet load(List<Path> files) throws IOException {
+        List<IngredientRuleSet.Rule> rules = new ArrayList<>();
+        Map<IngredientRuleSet.Rule, List<String>> aliases = new HashMap<>();
+        for (Path file : files) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                IngredientRuleSet.parse(reader, rules, aliases);
+            }
+        }
+        return IngredientRuleSet.compile(rules, aliases);
+    }
+}
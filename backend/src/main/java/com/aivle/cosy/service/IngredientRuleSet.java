@@ -0,0 +1,207 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.domain.Log;
+import com.aivle.cosy.util.AhoCorasick;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 국가별 금지/제한 원료 목록을 컴파일한 사전 검사 규칙.
+ * 표준명/영문명/이명을 모두 Aho-Corasick automaton 하나로 묶어 전성분을 한 번만 훑는다.
+ * 일반적인 단어(예: Chlorides)가 다른 성분명 일부에 걸리지 않도록 성분 경계(구분자, 괄호)에 딱 맞는 매칭만 인정한다.
+ */
+public final class IngredientRuleSet {
+    private static final Pattern CONCENTRATION = Pattern.compile("\\d+(\\.\\d+)?\\s*(%|ppm)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern HANGUL_SPACE = Pattern.compile("(?<=[가-힣]) (?=[가-힣])");
+    private static final Pattern BOUNDARY_SPACE = Pattern.compile(" ?([,;·•|、\\n():]) ?");
+    // 앞 이름에 붙는 치환기/염/에스터 표기 (4-Hydroxy-, 2-Methoxy, nickel salt, Methyl Ester, (E)-isomer, Compd. with ...)
+    private static final Pattern INVERTED_SUFFIX = Pattern.compile(
+            "-$|^[\\d,']+-\\w*(oxy|yl|o|ino)$|\\b(salts?|esters?|isomers?|compd\\.?)\\b", Pattern.CASE_INSENSITIVE);
+    private static final int MIN_PATTERN_LENGTH = 2;
+
+    public enum Category {
+        PROHIBITED("금지"), LIMITED("한도"), LIMITED_OR_PROHIBITED("한도/금지");
+
+        private final String label;
+
+        Category(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        static Category fromLabel(String label) {
+            for (Category category : values()) {
+                if (category.label.equals(label)) return category;
+            }
+            return null;
+        }
+    }
+
+    public record Rule(Category category, String name, String englishName) {
+    }
+
+    public record Result(Log.ApprovalStatus status, List<Rule> hits) {
+        // Log.cautiousIngredient 형식 (프론트 분석 결과와 동일하게 ", "로 연결, 255자 제한)
+        public String cautiousIngredient() {
+            if (hits.isEmpty()) return "없음";
+            String joined = String.join(", ", hits.stream().map(Rule::name).toList());
+            return joined.length() > 255 ? joined.substring(0, 255) : joined;
+        }
+    }
+
+    private final AhoCorasick<Rule> automaton;
+    private final int ruleCount;
+
+    private IngredientRuleSet(AhoCorasick<Rule> automaton, int ruleCount) {
+        this.automaton = automaton;
+        this.ruleCount = ruleCount;
+    }
+
+    public static IngredientRuleSet empty() {
+        return compile(List.of());
+    }
+
+    public static IngredientRuleSet compile(List<Rule> rules) {
+        return compile(rules, Map.of());
+    }
+
+    /**
+     * @param aliases 규칙별 추가 이름 (이명)
+     */
+    public static IngredientRuleSet compile(List<Rule> rules, Map<Rule, List<String>> aliases) {
+        AhoCorasick.Builder<Rule> builder = AhoCorasick.builder();
+        for (Rule rule : rules) {
+            addPattern(builder, rule.name(), rule);
+            addPattern(builder, rule.englishName(), rule);
+            for (String alias : aliases.getOrDefault(rule, List.of())) {
+                addPattern(builder, alias, rule);
+            }
+        }
+        return new IngredientRuleSet(builder.build(), rules.size());
+    }
+
+    private static void addPattern(AhoCorasick.Builder<Rule> builder, String name, Rule rule) {
+        if (name == null) return;
+        String pattern = normalize(name);
+        if (pattern.length() >= MIN_PATTERN_LENGTH) {
+            builder.add(pattern, rule);
+        }
+    }
+
+    public int ruleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * 전성분 검사: 금지 원료가 있으면 HIGH, 한도 원료만 있으면 MEDIUM, 없으면 LOW (잠정 결과)
+     */
+    public Result screen(String fullIngredient) {
+        if (fullIngredient == null || fullIngredient.isBlank()) {
+            return new Result(Log.ApprovalStatus.LOW, List.of());
+        }
+        String text = normalize(fullIngredient);
+        Map<Rule, Boolean> hits = new LinkedHashMap<>();
+        automaton.scan(text, (start, end, rules) -> {
+            if (isBoundary(text, start - 1) && isBoundary(text, end)) {
+                rules.forEach(rule -> hits.putIfAbsent(rule, true));
+            }
+        });
+
+        Log.ApprovalStatus status = Log.ApprovalStatus.LOW;
+        for (Rule rule : hits.keySet()) {
+            if (rule.category() == Category.PROHIBITED) {
+                status = Log.ApprovalStatus.HIGH;
+                break;
+            }
+            status = Log.ApprovalStatus.MEDIUM;
+        }
+        return new Result(status, List.copyOf(hits.keySet()));
+    }
+
+    // 본문과 패턴에 같은 정규화를 적용 (NFKC, 소문자, 함량 제거, 한글 사이 공백과 구분자 주변 공백 제거)
+    static String normalize(String value) {
+        String text = Normalizer.normalize(value, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        text = text.replace('[', '(').replace(']', ')').replace('\r', '\n');
+        text = CONCENTRATION.matcher(text).replaceAll("");
+        text = WHITESPACE.matcher(text).replaceAll(match -> match.group().contains("\n") ? "\n" : " ");
+        text = HANGUL_SPACE.matcher(text).replaceAll("");
+        text = BOUNDARY_SPACE.matcher(text).replaceAll("$1");
+        return text.trim();
+    }
+
+    // 위치가 본문 밖이거나 성분 구분자/괄호이면 경계 (1,2-Hexanediol처럼 숫자 사이 쉼표는 제외)
+    private static boolean isBoundary(String text, int index) {
+        if (index < 0 || index >= text.length()) return true;
+        char c = text.charAt(index);
+        if (c == ',') {
+            return !(index > 0 && index + 1 < text.length()
+                    && Character.isDigit(text.charAt(index - 1)) && Character.isDigit(text.charAt(index + 1)));
+        }
+        return c == ';' || c == '·' || c == '•' || c == '|' || c == '、' || c == '\n'
+                || c == '(' || c == ')' || c == ':';
+    }
+
+    /**
+     * 식약처 배합 제한 원료 텍스트 파일 파싱
+     * [레코드 N] 다음 줄부터 "  키: 값" 형식 (구분, 표준명, 영문명, 이명 사용)
+     */
+    public static void parse(BufferedReader reader, List<Rule> rules, Map<Rule, List<String>> aliases) throws IOException {
+        Map<String, String> fields = new LinkedHashMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("[")) {
+                addRecord(fields, rules, aliases);
+                fields.clear();
+                continue;
+            }
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.startsWith("  ")) {
+                fields.put(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+            }
+        }
+        addRecord(fields, rules, aliases);
+    }
+
+    private static void addRecord(Map<String, String> fields, List<Rule> rules, Map<Rule, List<String>> aliases) {
+        Category category = Category.fromLabel(fields.get("구분"));
+        String name = fields.get("표준명");
+        if (category == null || name == null || name.isBlank()) return;
+
+        Rule rule = new Rule(category, name, fields.get("영문명"));
+        rules.add(rule);
+        String alias = fields.get("이명");
+        if (alias != null && !alias.isBlank()) {
+            aliases.computeIfAbsent(rule, key -> new ArrayList<>()).addAll(splitAliases(alias));
+        }
+    }
+
+    /**
+     * 이명은 ", "로 구분 (공백 없는 쉼표는 N,N- 같은 이름의 일부)
+     * "Citric acid, nickel salt", "Ethanol, 2-Ethoxy-"처럼 CAS 색인식으로 뒤집힌 이름은
+     * 앞 조각과 다시 합쳐 흔한 성분(Citric acid, Ethanol)이 단독 이명으로 등록되지 않게 한다.
+     */
+    static List<String> splitAliases(String alias) {
+        List<String> names = new ArrayList<>();
+        for (String value : alias.split(",\\s+")) {
+            String name = value.trim();
+            if (name.isEmpty()) continue;
+            if (!names.isEmpty() && INVERTED_SUFFIX.matcher(name).find()) {
+                names.set(names.size() - 1, names.get(names.size() - 1) + ", " + name);
+            } else {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,92 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.domain.Log;
+import com.aivle.cosy.dto.ChangeEvent;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 검증이 끝난 분석 결과를 JDBC batch로 기록.
+ * (product_id, country) unique 키 기준 INSERT ... ON DUPLICATE KEY UPDATE를 성분/문구별로 한 번의 batch로 보내고,
+ * 성분 결과는 배합 해시 캐시(compliance_results)에도 같은 방식으로 반영하고, 커밋되면 회사별로 변경 알림을 보낸다.
+ * 소유 회사 확인은 호출하는 쪽에서 끝낸 뒤 넘겨야 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class LogBatchWriter {
+    private static final String UPSERT_INGREDIENT =
+            "insert into log (product_id, company_id, country, ingredient_status, cautious_ingredient, ingredient_law, "
+                    + "ingredient_hash, upd_date) values (?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "on duplicate key update ingredient_status = values(ingredient_status), "
+                    + "cautious_ingredient = values(cautious_ingredient), ingredient_law = values(ingredient_law), "
+                    + "ingredient_hash = values(ingredient_hash), upd_date = values(upd_date)";
+    private static final String UPSERT_MARKETING =
+            "insert into log (product_id, company_id, country, marketing_status, marketing_law, upd_date) "
+                    + "values (?, ?, ?, ?, ?, ?) "
+                    + "on duplicate key update marketing_status = values(marketing_status), "
+                    + "marketing_law = values(marketing_law), upd_date = values(upd_date)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ComplianceCacheService complianceCache;
+    private final ChangeEventService changeEvents;
+
+    public enum Type {
+        INGREDIENT, MARKETING
+    }
+
+    /**
+     * 기록 한 건 (ingredientHash, cautiousIngredient, cacheable은 성분 결과에만 사용)
+     * cacheable: 분석한 전성분이 현재 제품 전성분과 같아 (국가, 배합 해시) 캐시에 저장해도 되는 결과
+     */
+    public record LogWrite(Long productId, Long companyId, Log.Country country, Type type, Log.ApprovalStatus status,
+                           String cautiousIngredient, String law, String ingredientHash, boolean cacheable) {
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void write(List<LogWrite> writes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<LogWrite> ingredient = writes.stream().filter(write -> write.type() == Type.INGREDIENT).toList();
+        List<LogWrite> marketing = writes.stream().filter(write -> write.type() == Type.MARKETING).toList();
+
+        if (!ingredient.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_INGREDIENT, ingredient, ingredient.size(), (ps, write) -> {
+                ps.setLong(1, write.productId());
+                ps.setLong(2, write.companyId());
+                ps.setString(3, write.country().name());
+                ps.setString(4, write.status().name());
+                ps.setString(5, write.cautiousIngredient());
+                ps.setString(6, write.law());
+                ps.setString(7, write.ingredientHash());
+                ps.setTimestamp(8, now);
+            });
+            complianceCache.storeAll(ingredient.stream()
+                    .filter(LogWrite::cacheable)
+                    .map(write -> new ComplianceCacheService.Entry(write.country(), write.ingredientHash(),
+                            write.status(), write.cautiousIngredient(), write.law()))
+                    .toList());
+        }
+        if (!marketing.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_MARKETING, marketing, marketing.size(), (ps, write) -> {
+                ps.setLong(1, write.productId());
+                ps.setLong(2, write.companyId());
+                ps.setString(3, write.country().name());
+                ps.setString(4, write.status().name());
+                ps.setString(5, write.law());
+                ps.setTimestamp(6, now);
+            });
+        }
+
+        Map<Long, List<LogWrite>> byCompany = writes.stream().collect(Collectors.groupingBy(LogWrite::companyId));
+        byCompany.forEach((companyId, companyWrites) -> changeEvents.publish(companyId, ChangeEvent.Type.LOG_UPDATED,
+                companyWrites.stream().map(LogWrite::productId).distinct().toList(),
+                companyWrites.stream().map(write -> write.country().name()).distinct().toList()));
+    }
+}
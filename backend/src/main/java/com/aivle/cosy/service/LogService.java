@@ -2,70 +2,272 @@ package com.aivle.cosy.service;
 
 import com.aivle.cosy.domain.Log;
 import com.aivle.cosy.domain.Product;
+import com.aivle.cosy.dto.ChangeEvent;
+import com.aivle.cosy.dto.LogBatchResponse;
+import com.aivle.cosy.dto.LogPageResponse;
 import com.aivle.cosy.dto.LogRequest;
+import com.aivle.cosy.dto.LogResponse;
+import com.aivle.cosy.dto.LogSearchRequest;
+import com.aivle.cosy.dto.PrescreenRequest;
+import com.aivle.cosy.dto.PrescreenResponse;
+import com.aivle.cosy.exception.BusinessException;
+import com.aivle.cosy.exception.CommonErrorCode;
+import com.aivle.cosy.exception.ProductErrorCode;
 import com.aivle.cosy.repository.LogRepository;
 import com.aivle.cosy.repository.ProductRepository;
+import com.aivle.cosy.util.CursorUtils;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class LogService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final LogRepository logRepository;
     private final ProductRepository productRepository;
+    private final ComplianceCacheService complianceCache;
+    private final IngredientPrescreenService prescreenService;
+    private final LogBatchWriter logBatchWriter;
+    private final LogWriteBehindService writeBehind;
+    private final ChangeEventService changeEvents;
+
+    @Value("${log.batch.max-size:500}")
+    private int maxBatchSize;
 
     // 성분(Ingredient) 탭 전용 조회
-    public List<Log> getIngredientLogsByCompany(Long companyId) {
-        return logRepository.findByCompanyId(companyId);
+    public List<LogResponse> getIngredientLogsByCompany(Long companyId) {
+        return logRepository.findIngredientLogs(companyId);
     }
 
-    public List<Log> getIngredientLogsByCountry(Long companyId, String countryName) {
+    public List<LogResponse> getIngredientLogsByCountry(Long companyId, String countryName) {
         Log.Country country = Log.Country.valueOf(countryName.toUpperCase());
-        return logRepository.findByCompanyIdAndCountry(companyId, country); //
+        return logRepository.findIngredientLogsByCountry(companyId, country);
     }
 
     // 문구(Marketing) 탭 전용 조회
-    public List<Log> getMarketingLogsByCompany(Long companyId) {
-        return logRepository.findByCompanyId(companyId);
+    public List<LogResponse> getMarketingLogsByCompany(Long companyId) {
+        return logRepository.findMarketingLogs(companyId);
     }
 
-    public List<Log> getMarketingLogsByCountry(Long companyId, String countryName) {
+    public List<LogResponse> getMarketingLogsByCountry(Long companyId, String countryName) {
         Log.Country country = Log.Country.valueOf(countryName.toUpperCase());
-        return logRepository.findByCompanyIdAndCountry(companyId, country);
-    }
-
-    public void upsertLog(Long companyId, LogRequest request) {
-        Log.Country country = Log.Country.valueOf(request.getCountry().toUpperCase());
-
-        Log log = logRepository.findByProductIdAndCountry(request.getProductId(), country)
-                .orElseGet(
-                        () -> {
-                            Product product = productRepository.findById(request.getProductId()).orElseThrow();
-                            return logRepository.save(Log.builder()
-                                    .company(product.getCompany())
-                                    .product(product)
-                                    .country(country)
-                                    .build());
-                        });
-
-        if ("INGREDIENT".equalsIgnoreCase(request.getUpdateType())) {
-            log.updateIngredientAnalysis(
-                    Log.ApprovalStatus.valueOf(request.getIngredientStatus()),
-                    request.getCautiousIngredient(),
-                    request.getIngredientLaw()
-            );
-        } else if ("MARKETING".equalsIgnoreCase(request.getUpdateType())) {
-            log.updateMarketingAnalysis(
-                    Log.ApprovalStatus.valueOf(request.getMarketingStatus()),
-                    request.getMarketingLaw()
-            );
+        return logRepository.findMarketingLogsByCountry(companyId, country);
+    }
+
+    /**
+     * 성분 탭 키셋 페이지 조회 (updDate desc, logId desc)
+     */
+    public LogPageResponse<LogPageResponse.IngredientItem> getIngredientLogPage(Long companyId, LogSearchRequest search) {
+        int size = pageSize(search);
+        CursorUtils.Cursor cursor = CursorUtils.decode(search.getCursor());
+        List<LogPageResponse.IngredientItem> rows = logRepository.findIngredientPage(companyId, search.getCountry(),
+                search.getStatus(), search.getProductId(), search.getUpdatedSince(),
+                cursor == null ? null : cursor.updDate(), cursor == null ? null : cursor.id(), PageRequest.of(0, size + 1));
+        return page(rows, size, item -> CursorUtils.encode(item.getUpdDate(), item.getLogId()));
+    }
+
+    /**
+     * 문구 탭 키셋 페이지 조회 (updDate desc, logId desc)
+     */
+    public LogPageResponse<LogPageResponse.MarketingItem> getMarketingLogPage(Long companyId, LogSearchRequest search) {
+        int size = pageSize(search);
+        CursorUtils.Cursor cursor = CursorUtils.decode(search.getCursor());
+        List<LogPageResponse.MarketingItem> rows = logRepository.findMarketingPage(companyId, search.getCountry(),
+                search.getStatus(), search.getProductId(), search.getUpdatedSince(),
+                cursor == null ? null : cursor.updDate(), cursor == null ? null : cursor.id(), PageRequest.of(0, size + 1));
+        return page(rows, size, item -> CursorUtils.encode(item.getUpdDate(), item.getLogId()));
+    }
+
+    private static int pageSize(LogSearchRequest search) {
+        return search.getSize() == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(search.getSize(), 1), MAX_PAGE_SIZE);
+    }
+
+    // 다음 페이지 존재 여부 확인을 위해 하나 더 조회한 결과를 잘라 커서 생성
+    private static <T> LogPageResponse<T> page(List<T> rows, int size, Function<T, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> items = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(items.get(items.size() - 1)) : null;
+        return new LogPageResponse<>(items, nextCursor, hasNext);
+    }
+
+    // 지정한 국가(없으면 전체 국가)의 금지/제한 원료 사전 검사
+    public List<PrescreenResponse> prescreen(PrescreenRequest request) {
+        List<Log.Country> countries = request.getCountry() == null || request.getCountry().isBlank()
+                ? List.of(Log.Country.values())
+                : List.of(enumValue(Log.Country.class, request.getCountry(), "country"));
+        return countries.stream()
+                .map(country -> {
+                    IngredientRuleSet ruleSet = prescreenService.ruleSet(country);
+                    return new PrescreenResponse(country, ruleSet.screen(request.getFullIngredient()), ruleSet.ruleCount());
+                })
+                .toList();
+    }
+
+    /**
+     * 분석 결과 일괄 기록 (한 트랜잭션)
+     * 제품은 IN 쿼리 한 번으로 확인하고, 검증을 통과한 항목만 JDBC batch로 upsert한다.
+     * 항목별 성공/실패를 요청 순서대로 돌려준다.
+     */
+    public LogBatchResponse upsertLogs(Long companyId, List<LogRequest> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > maxBatchSize) {
+            throw new BusinessException(CommonErrorCode.INVALID_PARAMETER,
+                    "한 번에 1~" + maxBatchSize + "건까지 기록할 수 있습니다.");
+        }
+
+        List<Long> productIds = requests.stream()
+                .map(request -> request == null ? null : request.getProductId())
+                .filter(Objects::nonNull).distinct().toList();
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+        Map<Long, String> hashes = new HashMap<>();
+
+        List<LogBatchWriter.LogWrite> writes = new ArrayList<>();
+        List<LogBatchResponse.ItemResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            LogRequest request = requests.get(i);
+            try {
+                LogBatchWriter.LogWrite write = resolve(companyId, request, products, hashes);
+                writes.add(write);
+                results.add(new LogBatchResponse.ItemResult(i, write.productId(), write.country().name(),
+                        write.type().name(), true, null, null));
+            } catch (BusinessException e) {
+                results.add(new LogBatchResponse.ItemResult(i, request == null ? null : request.getProductId(),
+                        request == null ? null : request.getCountry(), request == null ? null : request.getUpdateType(),
+                        false, e.getErrorCode().code(), e.getMessage()));
+            }
         }
+
+        if (writeBehind.isEnabled()) {
+            writeBehind.append(companyId, writes);
+        } else {
+            logBatchWriter.write(writes);
+        }
+        return new LogBatchResponse(writes.size(), requests.size() - writes.size(), writeBehind.isEnabled(), results);
+    }
+
+    // 요청 값 검증 (productId, enum 값), 제품 확인 전 단계
+    private record ParsedRequest(Log.Country country, LogBatchWriter.Type type, Log.ApprovalStatus status) {
+    }
+
+    private static ParsedRequest parse(LogRequest request) {
+        if (request == null || request.getProductId() == null) {
+            throw new BusinessException(CommonErrorCode.INVALID_PARAMETER, "productId는 필수입니다.");
+        }
+        Log.Country country = enumValue(Log.Country.class, request.getCountry(), "country");
+        LogBatchWriter.Type type = enumValue(LogBatchWriter.Type.class, request.getUpdateType(), "updateType");
+        Log.ApprovalStatus status = enumValue(Log.ApprovalStatus.class,
+                type == LogBatchWriter.Type.INGREDIENT ? request.getIngredientStatus() : request.getMarketingStatus(),
+                type == LogBatchWriter.Type.INGREDIENT ? "ingredientStatus" : "marketingStatus");
+        return new ParsedRequest(country, type, status);
+    }
+
+    // 요청 한 건 검증 -> 기록할 값 (제품 소유 회사, enum 값 확인)
+    private LogBatchWriter.LogWrite resolve(Long companyId, LogRequest request, Map<Long, Product> products,
+                                            Map<Long, String> hashes) {
+        ParsedRequest parsed = parse(request);
+        Log.Country country = parsed.country();
+        LogBatchWriter.Type type = parsed.type();
+        Log.ApprovalStatus status = parsed.status();
+
+        Product product = products.get(request.getProductId());
+        if (product == null) {
+            throw new BusinessException(ProductErrorCode.PRODUCT_NOT_FOUND);
+        }
+        if (!product.getCompany().getId().equals(companyId)) {
+            throw new BusinessException(ProductErrorCode.UNAUTHORIZED_ACCESS);
+        }
+
+        if (type == LogBatchWriter.Type.INGREDIENT) {
+            String productHash = hashes.computeIfAbsent(product.getId(), id -> complianceCache.hashOf(product.getFullIngredient()));
+            String analysedHash = complianceCache.hashOf(request.getFullIngredient());
+            return new LogBatchWriter.LogWrite(product.getId(), companyId, country, type, status,
+                    request.getCautiousIngredient(), request.getIngredientLaw(),
+                    analysedHash != null ? analysedHash : productHash, isCacheable(analysedHash, productHash));
+        }
+        return new LogBatchWriter.LogWrite(product.getId(), companyId, country, type, status,
+                null, request.getMarketingLaw(), null, false);
+    }
+
+    // 분석 도중 제품 전성분이 바뀌었으면 결과가 다른 배합의 캐시로 저장되지 않도록 (분석한 전성분이 없으면 확인 불가)
+    private static boolean isCacheable(String analysedHash, String productHash) {
+        return analysedHash != null && analysedHash.equals(productHash);
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String value, String field) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (RuntimeException e) {
+            throw new BusinessException(CommonErrorCode.INVALID_PARAMETER, field + " 값이 올바르지 않습니다: " + value);
+        }
+    }
+
+    /**
+     * 분석 결과 기록 (제품+국가당 한 행, unique 키 기준 INSERT ... ON DUPLICATE KEY UPDATE 한 문장)
+     * 성분/문구 중 요청한 쪽 컬럼만 갱신하고, 다른 회사 제품이면 기록하지 않는다.
+     * @return write-behind 버퍼에 넣어 아직 반영 전이면 true
+     */
+    public boolean upsertLog(Long companyId, LogRequest request) {
+        // 버퍼 사용 여부와 관계없이 일괄 기록과 같은 검증 (잘못된 값은 INVALID_PARAMETER)
+        ParsedRequest parsed = parse(request);
+        // 성분 결과는 배합 해시 계산에 전성분이 필요하므로 제품을 읽으면서 소유 회사 확인
+        Map<Long, Product> products = parsed.type() == LogBatchWriter.Type.INGREDIENT || writeBehind.isEnabled()
+                ? productRepository.findById(request.getProductId())
+                        .map(product -> Map.of(product.getId(), product)).orElse(Map.of())
+                : Map.of();
+
+        if (writeBehind.isEnabled()) {
+            // 검증과 소유 회사 확인은 지금 끝내고 기록만 미룸
+            writeBehind.append(companyId, List.of(resolve(companyId, request, products, new HashMap<>())));
+            return true;
+        }
+
+        Log.Country country = parsed.country();
+        LocalDateTime now = LocalDateTime.now();
+
+        if (parsed.type() == LogBatchWriter.Type.INGREDIENT) {
+            LogBatchWriter.LogWrite write = resolve(companyId, request, products, new HashMap<>());
+            logRepository.upsertIngredient(write.productId(), companyId, country.name(), write.status().name(),
+                    write.cautiousIngredient(), write.law(), write.ingredientHash(), now);
+            if (write.cacheable()) {
+                complianceCache.store(country, write.ingredientHash(), write.status(), write.cautiousIngredient(), write.law());
+            }
+        } else {
+            int rows = logRepository.upsertMarketing(request.getProductId(), companyId, country.name(),
+                    parsed.status().name(), request.getMarketingLaw(), now);
+            if (rows == 0) {
+                // 제품이 없거나 다른 회사 제품 (실패한 경우에만 구분을 위해 조회)
+                throw new BusinessException(productRepository.existsById(request.getProductId())
+                        ? ProductErrorCode.UNAUTHORIZED_ACCESS : ProductErrorCode.PRODUCT_NOT_FOUND);
+            }
+        }
+        changeEvents.publish(companyId, ChangeEvent.Type.LOG_UPDATED, List.of(request.getProductId()), List.of(country.name()));
+        return false;
+    }
+
+    /**
+     * write-behind 버퍼에 남은 회사 기록이 모두 반영될 때까지 대기 (조회 전 read-your-writes, flush API)
+     * 대기하는 동안 DB 커넥션을 잡지 않도록 트랜잭션 밖에서 실행
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void awaitPendingWrites(Long companyId) {
+        writeBehind.awaitFlushed(companyId);
     }
 
 }
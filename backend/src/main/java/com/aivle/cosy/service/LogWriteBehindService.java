@@ -0,0 +1,309 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.exception.BusinessException;
+import com.aivle.cosy.exception.CommonErrorCode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * 분석 결과 기록 write-behind 버퍼 (log.write-behind.enabled=true일 때만 사용).
+ * 검증이 끝난 기록을 Redis Stream에 추가만 하고 바로 응답하며, drainer가 묶음 단위로 읽어
+ * 같은 (제품, 국가, 종류) 기록은 마지막 값만 남긴 뒤 LogBatchWriter로 한 트랜잭션에 반영한다.
+ * - 내구성: 반영 후에만 Stream에서 지우므로 서버가 죽어도 기록은 남고, upsert라 다시 반영해도 결과가 같다
+ * - 순서: drainer는 Redis 락을 잡은 한 곳에서만 실행되어 Stream 순서대로 반영된다
+ * - 역압: 버퍼가 max-length에 닿으면 추가하지 않고 503으로 거절
+ * - read-your-writes: 회사별 대기 건수를 함께 관리해 조회 전 awaitFlushed로 반영을 기다린다
+ * 끄기 전에는 flush로 버퍼를 비워야 한다 (꺼져 있으면 drainer도 멈춤).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogWriteBehindService {
+    private static final String FIELD = "w";
+
+    // KEYS[1]=stream, KEYS[2]=회사별 대기 건수, ARGV[1]=최대 길이, ARGV[2]=회사 id, ARGV[3..]=기록 / 반환: 추가 후 길이, 가득 차면 -1
+    private static final RedisScript<Long> APPEND = RedisScript.of("""
+            local count = #ARGV - 2
+            local length = redis.call('XLEN', KEYS[1])
+            if length + count > tonumber(ARGV[1]) then
+              return -1
+            end
+            for i = 3, #ARGV do
+              redis.call('XADD', KEYS[1], '*', 'w', ARGV[i])
+            end
+            redis.call('HINCRBY', KEYS[2], ARGV[2], count)
+            return length + count
+            """, Long.class);
+
+    // KEYS[1]=stream, KEYS[2]=회사별 대기 건수, ARGV[1]=id 개수 n, ARGV[2..n+1]=id, 이후 (회사 id, 건수) 쌍
+    // 버퍼가 비면 대기 건수도 초기화 (읽지 못해 버린 기록이 있어도 어긋난 채로 남지 않게)
+    private static final RedisScript<Long> REMOVE = RedisScript.of("""
+            local n = tonumber(ARGV[1])
+            if n > 0 then
+              redis.call('XDEL', KEYS[1], unpack(ARGV, 2, n + 1))
+            end
+            for i = n + 2, #ARGV, 2 do
+              if redis.call('HINCRBY', KEYS[2], ARGV[i], -tonumber(ARGV[i + 1])) <= 0 then
+                redis.call('HDEL', KEYS[2], ARGV[i])
+              end
+            end
+            if redis.call('XLEN', KEYS[1]) == 0 then
+              redis.call('DEL', KEYS[2])
+            end
+            return n
+            """, Long.class);
+
+    // 락을 가진 경우에만 만료 연장(ARGV[2]가 있으면) 또는 해제
+    private static final RedisScript<Long> RENEW_OR_RELEASE = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+              return 0
+            end
+            if ARGV[2] then
+              return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final LogBatchWriter logBatchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${log.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${log.write-behind.stream-key:log:write-behind}")
+    private String streamKey;
+
+    @Value("${log.write-behind.max-length:100000}")
+    private long maxLength;
+
+    @Value("${log.write-behind.batch-size:500}")
+    private int batchSize;
+
+    // 읽기 요청이 대기 중인 자기 회사 기록의 반영을 기다리는 최대 시간
+    @Value("${log.write-behind.flush-timeout-ms:5000}")
+    private long flushTimeoutMs;
+
+    @Value("${log.write-behind.lock-ttl-ms:30000}")
+    private long lockTtlMs;
+
+    private final String lockToken = UUID.randomUUID().toString();
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+    private ExecutorService drainExecutor;
+
+    @PostConstruct
+    public void init() {
+        drainExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-write-behind-drainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("log.write_behind.backlog", backlog, AtomicLong::get)
+                .description("반영 대기 중인 분석 결과 기록 수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drainExecutor.shutdown();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 기록을 버퍼에 추가 (모두 같은 회사 기록, 검증/소유 회사 확인이 끝난 값)
+     * @throws BusinessException 버퍼가 가득 찬 경우 WRITE_BUFFER_FULL
+     */
+    public void append(Long companyId, List<LogBatchWriter.LogWrite> writes) {
+        if (writes.isEmpty()) return;
+        List<String> args = new ArrayList<>(writes.size() + 2);
+        args.add(String.valueOf(maxLength));
+        args.add(String.valueOf(companyId));
+        for (LogBatchWriter.LogWrite write : writes) {
+            args.add(objectMapper.writeValueAsString(write));
+        }
+
+        Long length = redisTemplate.execute(APPEND, List.of(streamKey, pendingKey()), args.toArray());
+        if (length == null || length < 0) {
+            throw new BusinessException(CommonErrorCode.WRITE_BUFFER_FULL);
+        }
+        backlog.set(length);
+        if (length >= batchSize) {
+            wakeUp();
+        }
+    }
+
+    /**
+     * read-your-writes: 회사의 대기 중인 기록이 모두 반영될 때까지 대기 (필요하면 직접 반영)
+     * @throws BusinessException flush-timeout-ms 안에 반영하지 못한 경우 WRITE_BUFFER_TIMEOUT
+     */
+    public void awaitFlushed(Long companyId) {
+        if (!enabled) return;
+        long deadline = System.currentTimeMillis() + flushTimeoutMs;
+        while (pendingCount(companyId) > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new BusinessException(CommonErrorCode.WRITE_BUFFER_TIMEOUT);
+            }
+            // 다른 서버/스레드가 반영 중이면 락을 얻지 못하므로 잠시 후 다시 확인
+            if (!drain(deadline)) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new BusinessException(CommonErrorCode.WRITE_BUFFER_TIMEOUT);
+                }
+            }
+        }
+    }
+
+    private long pendingCount(Long companyId) {
+        Object count = redisTemplate.opsForHash().get(pendingKey(), String.valueOf(companyId));
+        return count == null ? 0 : Long.parseLong(count.toString());
+    }
+
+    // drainer 실행 요청, 이미 대기 중인 실행이 있으면 합쳐짐
+    private void wakeUp() {
+        if (wakeRequested.compareAndSet(false, true)) {
+            drainExecutor.execute(() -> {
+                wakeRequested.set(false);
+                drain(Long.MAX_VALUE);
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${log.write-behind.flush-interval-ms:500}")
+    public void poll() {
+        if (!enabled) return;
+        wakeUp();
+    }
+
+    /**
+     * 락을 얻으면 버퍼가 빌 때까지(또는 deadline까지) 묶음 단위로 반영
+     * @return 락을 얻어 실행했으면 true
+     */
+    private boolean drain(long deadline) {
+        Boolean locked;
+        try {
+            locked = redisTemplate.opsForValue().setIfAbsent(lockKey(), lockToken,
+                    Duration.ofMillis(lockTtlMs));
+        } catch (Exception e) {
+            log.warn("write-behind 락 획득 실패: {}", e.getMessage());
+            return false;
+        }
+        if (!Boolean.TRUE.equals(locked)) return false;
+
+        try {
+            while (drainBatch() == batchSize && System.currentTimeMillis() < deadline) {
+                // 가득 찬 묶음이면 남은 기록이 더 있을 수 있으므로 락을 연장하고 계속 처리
+                redisTemplate.execute(RENEW_OR_RELEASE, List.of(lockKey()), lockToken, String.valueOf(lockTtlMs));
+            }
+            Long length = redisTemplate.opsForStream().size(streamKey);
+            backlog.set(length == null ? 0 : length);
+        } catch (Exception e) {
+            log.error("write-behind 반영 실패", e);
+        } finally {
+            try {
+                redisTemplate.execute(RENEW_OR_RELEASE, List.of(lockKey()), lockToken);
+            } catch (Exception e) {
+                log.warn("write-behind 락 해제 실패 (만료 후 해제됨): {}", e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    // 한 묶음: 오래된 순으로 읽기 -> 키별 마지막 값만 반영(한 트랜잭션) -> Stream에서 삭제, 대기 건수 차감
+    private int drainBatch() {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                .range(streamKey, Range.unbounded(), Limit.limit().count(batchSize));
+        if (records == null || records.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, LogBatchWriter.LogWrite> latest = new LinkedHashMap<>();
+        Map<Long, Integer> perCompany = new HashMap<>();
+        for (MapRecord<String, Object, Object> record : records) {
+            LogBatchWriter.LogWrite write;
+            try {
+                write = objectMapper.readValue(String.valueOf(record.getValue().get(FIELD)), LogBatchWriter.LogWrite.class);
+            } catch (JacksonException e) {
+                log.error("write-behind 기록을 읽을 수 없어 버립니다 (id={}): {}", record.getId(), e.getMessage());
+                continue;
+            }
+            perCompany.merge(write.companyId(), 1, Integer::sum);
+            // 같은 키는 나중 기록이 이김 (앞 기록을 지워 순서도 마지막 위치로)
+            String key = write.productId() + ":" + write.country() + ":" + write.type();
+            latest.remove(key);
+            latest.put(key, write);
+        }
+
+        write(new ArrayList<>(latest.values()));
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(records.size()));
+        records.forEach(record -> args.add(record.getId().getValue()));
+        perCompany.forEach((companyId, count) -> {
+            args.add(String.valueOf(companyId));
+            args.add(String.valueOf(count));
+        });
+        redisTemplate.execute(REMOVE, List.of(streamKey, pendingKey()), args.toArray());
+        return records.size();
+    }
+
+    // 묶음 반영이 제약 조건 위반(삭제된 제품 등)으로 실패하면 한 건씩 다시 반영해 해당 기록만 버림
+    private void write(List<LogBatchWriter.LogWrite> writes) {
+        if (writes.isEmpty()) return;
+        try {
+            transactionTemplate.executeWithoutResult(status -> logBatchWriter.write(writes));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("write-behind 묶음 반영 실패, 한 건씩 재시도: {}", e.getMessage());
+            for (LogBatchWriter.LogWrite write : writes) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> logBatchWriter.write(List.of(write)));
+                } catch (DataIntegrityViolationException rowError) {
+                    log.warn("write-behind 기록을 반영할 수 없어 버립니다 (productId={}, country={}): {}",
+                            write.productId(), write.country(), rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    private String pendingKey() {
+        return streamKey + ":pending";
+    }
+
+    private String lockKey() {
+        return streamKey + ":lock";
+    }
+}
@@ -0,0 +1,235 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.domain.Product;
+import com.aivle.cosy.dto.ChangeEvent;
+import com.aivle.cosy.exception.BusinessException;
+import com.aivle.cosy.exception.ProductErrorCode;
+import com.aivle.cosy.repository.ProductRepository;
+import com.aivle.cosy.util.HashUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 제품 이미지 비동기 업로드 파이프라인.
+ * 요청 스레드는 이미지를 임시 파일로 옮기고(SHA-256 계산) 제품을 PENDING 상태로 커밋만 한다.
+ * 같은 내용의 이미지가 이미 올라가 있으면 S3 업로드를 생략한다.
+ * 실제 S3 업로드는 커밋 이후 S3AsyncClient로 진행하고, 완료되면 별도 트랜잭션에서 image URL을 채운다.
+ * 실패 시 지수 백오프로 재시도하고, 최종 실패하면 FAILED로 표시한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImageUploadService {
+    private final S3Service s3Service;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageVariantService imageVariantService;
+    private final ImageStorageService imageStorage;
+    private final ChangeEventService changeEvents;
+
+    @Value("${product.image-upload.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${product.image-upload.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${product.image-upload.max-backoff-ms:60000}")
+    private long maxBackoffMs;
+
+    @Value("${product.image-upload.worker-threads:4}")
+    private int workerThreads;
+
+    // 이 시간 이상 PENDING인 업로드는 (서버 재시작 등으로) 유실된 것으로 보고 FAILED 처리
+    @Value("${product.image-upload.stale-after-minutes:30}")
+    private long staleAfterMinutes;
+
+    private ScheduledExecutorService workers;
+
+    /**
+     * 업로드 대기 중인 이미지
+     * @param key S3 key
+     * @param url 업로드 완료 후 image에 들어갈 URL
+     * @param tempFile 요청에서 옮겨둔 임시 파일
+     */
+    public record PendingUpload(String key, String url, Path tempFile, String contentType) {
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "image-upload-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.workers = executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * 요청 스레드에서 호출: multipart 파일을 임시 파일로 옮기면서 SHA-256 계산 (S3 네트워크 I/O 없음)
+     * key는 내용 해시로 정해지므로 같은 이미지는 같은 key가 된다.
+     */
+    public PendingUpload stage(MultipartFile file, String prefix) {
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile("product-image-", ".upload");
+            MessageDigest digest = HashUtils.newSha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String key = imageStorage.contentKey(prefix, HexFormat.of().formatHex(digest.digest()), file.getContentType());
+            return new PendingUpload(key, s3Service.toUrl(key), tempFile, file.getContentType());
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            if (tempFile != null) {
+                deleteTempFile(tempFile);
+            }
+            throw new BusinessException(ProductErrorCode.IMAGE_UPLOAD_FAILED);
+        }
+    }
+
+    /**
+     * 현재 트랜잭션에서 이미지 참조를 추가하고, 커밋되면 업로드 시작 (롤백되면 임시 파일 삭제)
+     * 같은 내용의 이미지가 이미 S3에 있으면 업로드 없이 바로 완료 처리
+     */
+    public void uploadAfterCommit(Long productId, PendingUpload upload) {
+        boolean alreadyUploaded = imageStorage.acquire(upload.key());
+        Runnable start = alreadyUploaded
+                ? () -> complete(productId, upload)
+                : () -> attempt(productId, upload, 1);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    workers.execute(start);
+                } else {
+                    deleteTempFile(upload.tempFile());
+                }
+            }
+        });
+    }
+
+    private void attempt(Long productId, PendingUpload upload, int attempt) {
+        s3Service.uploadFileAsync(upload.tempFile(), upload.key(), upload.contentType())
+                .whenCompleteAsync((response, error) -> {
+                    if (error == null) {
+                        complete(productId, upload);
+                    } else if (attempt >= maxAttempts) {
+                        log.error("제품 이미지 업로드 최종 실패 (productId={}, key={})", productId, upload.key(), error);
+                        fail(productId, upload);
+                    } else {
+                        long delay = backoff(attempt);
+                        log.warn("제품 이미지 업로드 실패, {}ms 후 재시도 ({}/{}): {}", delay, attempt, maxAttempts, error.getMessage());
+                        workers.schedule(() -> attempt(productId, upload, attempt + 1), delay, TimeUnit.MILLISECONDS);
+                    }
+                }, workers);
+    }
+
+    // 업로드 완료: 아직 이 업로드를 기다리는 제품이면 image 교체 후 변환본 생성 요청
+    // 아니면(그 사이 실패 처리/교체/삭제) pendingImage를 비운 쪽에서 이미 참조를 해제했으므로 아무것도 하지 않음
+    private void complete(Long productId, PendingUpload upload) {
+        try {
+            Boolean applied = transactionTemplate.execute(status -> {
+                imageStorage.markUploaded(upload.key());
+                Product product = productRepository.findById(productId).orElse(null);
+                if (product == null || !product.isPendingImage(upload.url())) {
+                    // 마지막 참조였다면 방금 올린 객체만 남으므로 삭제 예약
+                    imageStorage.deleteIfUnreferenced(upload.key());
+                    return false;
+                }
+                imageStorage.release(product.completeImageUpload());
+                changeEvents.publish(product.getCompany().getId(), ChangeEvent.Type.PRODUCT_UPDATED,
+                        List.of(productId), List.of());
+                return true;
+            });
+
+            if (Boolean.TRUE.equals(applied)) {
+                imageVariantService.submit(productId, upload.url());
+            }
+        } catch (Exception e) {
+            log.error("제품 이미지 업로드 후처리 실패 (productId={})", productId, e);
+        } finally {
+            deleteTempFile(upload.tempFile());
+        }
+    }
+
+    private void fail(Long productId, PendingUpload upload) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // 아직 이 업로드를 기다리는 경우에만 참조 해제 (아니면 이미 해제됨)
+                productRepository.findById(productId)
+                        .filter(product -> product.isPendingImage(upload.url()))
+                        .ifPresent(product -> {
+                            imageStorage.release(product.failImageUpload());
+                            changeEvents.publish(product.getCompany().getId(), ChangeEvent.Type.PRODUCT_UPDATED,
+                                    List.of(productId), List.of());
+                        });
+            });
+        } catch (Exception e) {
+            log.error("제품 이미지 업로드 실패 상태 저장 실패 (productId={})", productId, e);
+        } finally {
+            deleteTempFile(upload.tempFile());
+        }
+    }
+
+    // 지수 백오프 + jitter
+    private long backoff(int attempt) {
+        long exponential = initialBackoffMs * (1L << Math.min(attempt - 1, 20));
+        long capped = Math.min(exponential, maxBackoffMs);
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    private void deleteTempFile(Path tempFile) {
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            log.warn("임시 파일 삭제 실패: {}", tempFile);
+        }
+    }
+
+    @Scheduled(fixedDelay = 300000)
+    public void failStaleUploads() {
+        LocalDateTime before = LocalDateTime.now().minusMinutes(staleAfterMinutes);
+        Integer updated = transactionTemplate.execute(status -> {
+            List<Product> stale = productRepository.findByImageStatusAndUpdDateBefore(Product.ImageStatus.PENDING, before);
+            for (Product product : stale) {
+                imageStorage.release(product.failImageUpload());
+            }
+            return stale.size();
+        });
+        if (updated != null && updated > 0) {
+            log.warn("오래된 PENDING 이미지 업로드 {}건을 FAILED 처리", updated);
+        }
+    }
+}
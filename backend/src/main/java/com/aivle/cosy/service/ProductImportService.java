@@ -0,0 +1,282 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.domain.Product.ProductType;
+import com.aivle.cosy.domain.Product.Status;
+import com.aivle.cosy.dto.ChangeEvent;
+import com.aivle.cosy.dto.ProductRequest;
+import com.aivle.cosy.dto.ProductResponse;
+import com.aivle.cosy.exception.BusinessException;
+import com.aivle.cosy.exception.ProductErrorCode;
+import com.aivle.cosy.exception.SignUpErrorCode;
+import com.aivle.cosy.repository.CompanyRepository;
+import com.aivle.cosy.util.CsvReader;
+import com.aivle.cosy.util.CsvWriter;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * 제품 대량 가져오기 (CSV / NDJSON).
+ * 요청 본문을 한 행씩 읽어 검증하고, 정상 행은 batch-size 단위의 multi-row INSERT 한 번으로 저장한다.
+ * 엔티티/영속성 컨텍스트를 거치지 않으므로 파일 크기와 관계없이 메모리 사용량이 일정하다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_INGREDIENT_LENGTH = 65535;
+    private static final String INSERT_PREFIX =
+            "insert into products (company_id, name, type, full_ingredient, status, reg_date, upd_date) values ";
+    private static final String VALUES_GROUP = "(?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CompanyRepository companyRepository;
+    private final ObjectMapper objectMapper;
+    private final IngredientIndexService ingredientIndex;
+    private final ChangeEventService changeEvents;
+
+    @Value("${product.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${product.import.max-rows:100000}")
+    private int maxRows;
+
+    @Value("${product.import.max-errors:1000}")
+    private int maxErrors;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format from(String contentType) {
+            if (contentType != null) {
+                MediaType mediaType = MediaType.parseMediaType(contentType);
+                if ("csv".equalsIgnoreCase(mediaType.getSubtype())) return CSV;
+                if ("x-ndjson".equalsIgnoreCase(mediaType.getSubtype())) return NDJSON;
+            }
+            throw new BusinessException(ProductErrorCode.INVALID_IMPORT_FILE);
+        }
+    }
+
+    // 검증을 통과해 INSERT를 기다리는 행
+    private record PendingRow(int row, String name, ProductType type, String fullIngredient, Status status) {
+    }
+
+    public ProductResponse.ImportResponse importProducts(Long companyId, InputStream body, Format format) {
+        if (!companyRepository.existsById(companyId)) {
+            throw new BusinessException(SignUpErrorCode.COMPANY_NOT_FOUND);
+        }
+
+        Importer importer = new Importer(companyId);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            if (format == Format.CSV) {
+                readCsv(reader, importer);
+            } else {
+                readNdjson(reader, importer);
+            }
+        } catch (IOException e) {
+            importer.error(importer.totalRows + 1, "파일을 읽을 수 없습니다: " + e.getMessage());
+        }
+        importer.flush();
+        if (importer.imported > 0) {
+            // 가져온 제품은 id를 돌려받지 않으므로 색인은 backfill로 처리
+            ingredientIndex.backfillAsync();
+            changeEvents.publish(companyId, ChangeEvent.Type.PRODUCT_IMPORTED, List.of(), List.of());
+        }
+
+        log.info("제품 가져오기 완료 (companyId={}, total={}, imported={}, failed={})",
+                companyId, importer.totalRows, importer.imported, importer.failed);
+        return new ProductResponse.ImportResponse(importer.totalRows, importer.imported, importer.failed,
+                importer.errors, importer.errorsTruncated);
+    }
+
+    // 첫 레코드는 헤더 (name, type, status, fullIngredient / full_ingredient, 대소문자 무시)
+    private void readCsv(BufferedReader reader, Importer importer) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) return;
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("type")) {
+            throw new BusinessException(ProductErrorCode.INVALID_IMPORT_FILE);
+        }
+
+        List<String> record;
+        while ((record = csv.next()) != null && importer.hasCapacity()) {
+            if (record.stream().allMatch(String::isBlank)) continue;
+            importer.accept(new ProductRequest.ImportRow(
+                    field(record, columns.get("name")),
+                    field(record, columns.get("type")),
+                    field(record, columns.get("status")),
+                    field(record, columns.get("fullingredient"))));
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Importer importer) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null && importer.hasCapacity()) {
+            if (line.isBlank()) continue;
+            try {
+                importer.accept(objectMapper.readValue(line, ProductRequest.ImportRow.class));
+            } catch (JacksonException e) {
+                importer.reject("JSON 형식이 올바르지 않습니다.");
+            }
+        }
+    }
+
+    private static String field(List<String> record, Integer index) {
+        if (index == null || index >= record.size()) return null;
+        // 내보내기에서 수식 방지용으로 붙인 ' 는 떼고 원래 값으로
+        String value = CsvWriter.unescapeFormula(record.get(index).trim());
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 행 검증, 버퍼링, 배치 INSERT와 결과 집계
+     * 버퍼는 batch-size, 오류 목록은 max-errors까지만 유지
+     */
+    private class Importer {
+        private final Long companyId;
+        private final List<PendingRow> pending = new ArrayList<>();
+        private final List<ProductResponse.RowError> errors = new ArrayList<>();
+        private int totalRows;
+        private int imported;
+        private int failed;
+        private boolean errorsTruncated;
+
+        Importer(Long companyId) {
+            this.companyId = companyId;
+        }
+
+        // 읽은 행이 있는데 최대 행 수를 넘었으면 오류를 남기고 중단
+        boolean hasCapacity() {
+            if (totalRows < maxRows) return true;
+            error(maxRows + 1, "최대 " + maxRows + "행까지 가져올 수 있습니다. 이후 행은 무시되었습니다.");
+            return false;
+        }
+
+        void accept(ProductRequest.ImportRow row) {
+            int rowNumber = ++totalRows;
+            String message = validate(row);
+            if (message != null) {
+                failed++;
+                error(rowNumber, message);
+                return;
+            }
+
+            Status status = isBlank(row.getStatus()) ? null : Status.valueOf(row.getStatus().trim().toUpperCase(Locale.ROOT));
+            pending.add(new PendingRow(rowNumber, row.getName().trim(),
+                    ProductType.valueOf(row.getType().trim().toUpperCase(Locale.ROOT)), row.getFullIngredient(), status));
+            // MySQL placeholder 최대 65535개
+            if (pending.size() >= Math.min(batchSize, 65535 / 7)) {
+                flush();
+            }
+        }
+
+        void reject(String message) {
+            int rowNumber = ++totalRows;
+            failed++;
+            error(rowNumber, message);
+        }
+
+        void error(int row, String message) {
+            if (errors.size() < maxErrors) {
+                errors.add(new ProductResponse.RowError(row, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        // multi-row INSERT 한 번으로 저장, 실패하면 해당 묶음만 한 행씩 다시 넣어 실패 행을 찾음
+        void flush() {
+            if (pending.isEmpty()) return;
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            try {
+                String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(pending.size(), VALUES_GROUP));
+                List<Object> args = new ArrayList<>(pending.size() * 7);
+                for (PendingRow row : pending) {
+                    args.addAll(values(row, now));
+                }
+                jdbcTemplate.update(sql, args.toArray());
+                imported += pending.size();
+            } catch (DataAccessException e) {
+                log.warn("제품 가져오기 배치 INSERT 실패, 행 단위로 재시도: {}", e.getMessage());
+                for (PendingRow row : pending) {
+                    try {
+                        jdbcTemplate.update(INSERT_PREFIX + VALUES_GROUP, values(row, now).toArray());
+                        imported++;
+                    } catch (DataAccessException rowError) {
+                        failed++;
+                        error(row.row(), "저장에 실패했습니다.");
+                    }
+                }
+            } finally {
+                pending.clear();
+            }
+        }
+
+        private List<Object> values(PendingRow row, Timestamp now) {
+            return Arrays.asList(companyId, row.name(), row.type().name(), row.fullIngredient(),
+                    row.status() == null ? null : row.status().name(), now, now);
+        }
+    }
+
+    private static String validate(ProductRequest.ImportRow row) {
+        if (row == null) {
+            return "빈 행입니다.";
+        }
+        if (isBlank(row.getName())) {
+            return "name은 필수입니다.";
+        }
+        if (row.getName().trim().length() > MAX_NAME_LENGTH) {
+            return "name은 " + MAX_NAME_LENGTH + "자 이하여야 합니다.";
+        }
+        if (!isEnumValue(ProductType.class, row.getType())) {
+            return "type이 올바르지 않습니다: " + row.getType();
+        }
+        if (!isBlank(row.getStatus()) && !isEnumValue(Status.class, row.getStatus())) {
+            return "status가 올바르지 않습니다: " + row.getStatus();
+        }
+        if (row.getFullIngredient() != null && row.getFullIngredient().length() > MAX_INGREDIENT_LENGTH) {
+            return "fullIngredient가 너무 깁니다.";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static <E extends Enum<E>> boolean isEnumValue(Class<E> type, String value) {
+        if (isBlank(value)) return false;
+        try {
+            Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
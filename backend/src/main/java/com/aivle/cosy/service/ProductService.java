@@ -2,22 +2,34 @@ package com.aivle.cosy.service;
 
 import com.aivle.cosy.domain.Company;
 import com.aivle.cosy.domain.Product;
+import com.aivle.cosy.dto.ChangeEvent;
 import com.aivle.cosy.dto.ProductRequest;
 import com.aivle.cosy.dto.ProductResponse;
 import com.aivle.cosy.exception.BusinessException;
+import com.aivle.cosy.exception.CommonErrorCode;
 import com.aivle.cosy.exception.ProductErrorCode;
 import com.aivle.cosy.exception.SignUpErrorCode;
 import com.aivle.cosy.repository.CompanyRepository;
 import com.aivle.cosy.repository.ProductRepository;
-import com.aivle.cosy.service.S3Service;
+import com.aivle.cosy.util.CursorUtils;
+import com.aivle.cosy.util.HashUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -27,33 +39,107 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final CompanyRepository companyRepository;
     private final S3Service s3Service;
+    private final ProductImageUploadService imageUploadService;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageVariantService imageVariantService;
+    private final ImageStorageService imageStorage;
+    private final IngredientIndexService ingredientIndex;
+    private final ComplianceCacheService complianceCache;
+    private final FormulationSimilarityService similarityIndex;
+    private final ChangeEventService changeEvents;
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> ALLOWED_IMAGE_TYPES = Set.of("image/jpeg", "image/png", "image/webp", "image/gif");
+
+    @Value("${product.image.max-bytes:20971520}")
+    private long maxImageBytes;
+
+    @Value("${product.image.presign-expiration-minutes:10}")
+    private long presignExpirationMinutes;
+
+    @Transactional(readOnly = true)
     public List<ProductResponse.DetailResponse> getProducts(Long companyId) {
-        return productRepository.findByCompanyId(companyId)
-                .stream()
-                .map(ProductResponse.DetailResponse::from)
-                .toList();
+        return productRepository.findDetailsByCompanyId(companyId);
+    }
+
+    /**
+     * 특정 성분이 들어간 회사 제품 조회 (한글명/INCI/별칭 모두 같은 성분으로 검색)
+     */
+    @Transactional(readOnly = true)
+    public List<ProductResponse.DetailResponse> getProductsByIngredient(Long companyId, String ingredient) {
+        Long ingredientId = ingredientIndex.findIngredientId(ingredient);
+        if (ingredientId == null) {
+            return List.of();
+        }
+        return productRepository.findByCompanyIdAndIngredientId(companyId, ingredientId);
+    }
+
+    /**
+     * 배합이 비슷한 분석 완료 제품의 국가별 결과 제안 (없으면 null)
+     */
+    @Transactional(readOnly = true)
+    public ProductResponse.SimilarAnalysisResponse getSimilarAnalysis(Long id, Long companyId) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new BusinessException(ProductErrorCode.PRODUCT_NOT_FOUND));
+
+        if (!product.getCompany().getId().equals(companyId)) {
+            throw new BusinessException(ProductErrorCode.UNAUTHORIZED_ACCESS);
+        }
+        return similarityIndex.findSimilarAnalysis(product);
+    }
+
+    /**
+     * 제품 목록 키셋 페이지 조회 (updDate desc, id desc)
+     * fullIngredient는 includeIngredient가 true일 때만 조회
+     */
+    @Transactional(readOnly = true)
+    public ProductResponse.PageResponse getProductPage(Long companyId, ProductRequest.SearchRequest search) {
+        int size = search.getSize() == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(search.getSize(), 1), MAX_PAGE_SIZE);
+        CursorUtils.Cursor cursor = CursorUtils.decode(search.getCursor());
+        LocalDateTime cursorDate = cursor == null ? null : cursor.updDate();
+        Long cursorId = cursor == null ? null : cursor.id();
+
+        // 다음 페이지 존재 여부 확인을 위해 하나 더 조회
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<ProductResponse.DetailResponse> rows = search.isIncludeIngredient()
+                ? productRepository.findPageWithIngredientByCompanyId(companyId, search.getType(), search.getStatus(), cursorDate, cursorId, limit)
+                : productRepository.findPageByCompanyId(companyId, search.getType(), search.getStatus(), cursorDate, cursorId, limit);
+
+        boolean hasNext = rows.size() > size;
+        List<ProductResponse.DetailResponse> items = hasNext ? rows.subList(0, size) : rows;
+        ProductResponse.DetailResponse last = items.isEmpty() ? null : items.get(items.size() - 1);
+        String nextCursor = hasNext ? CursorUtils.encode(last.getUpDate(), last.getId()) : null;
+
+        return new ProductResponse.PageResponse(items, nextCursor, hasNext);
     }
 
     public ProductResponse.CreateResponse createProduct(Long companyId, ProductRequest.SaveRequest request, MultipartFile imageFile) {
         Company company = companyRepository.findById(companyId)
                 .orElseThrow(() -> new BusinessException(SignUpErrorCode.COMPANY_NOT_FOUND));
 
-        String imageUrl = null;
-        if (imageFile != null && !imageFile.isEmpty()) {
-            imageUrl = s3Service.uploadFile(imageFile, "products/" + companyId);
-        }
-
         Product product = Product.builder()
                 .company(company)
                 .name(request.getName())
                 .type(request.getType())
-                .image(imageUrl)
                 .fullIngredient(request.getFullIngredient())
                 .status(request.getStatus())
                 .build();
 
+        // 이미지는 임시 파일로만 옮겨두고, 커밋 이후 비동기로 업로드 (PENDING -> READY)
+        ProductImageUploadService.PendingUpload upload = null;
+        if (imageFile != null && !imageFile.isEmpty()) {
+            upload = imageUploadService.stage(imageFile, "products/" + companyId);
+            product.startImageUpload(upload.url());
+        }
+
         Product savedProduct = productRepository.save(product);
+        ingredientIndex.reindexAfterCommit(savedProduct.getId());
+        complianceCache.prefill(savedProduct);
+        if (upload != null) {
+            imageUploadService.uploadAfterCommit(savedProduct.getId(), upload);
+        }
+        changeEvents.publish(companyId, ChangeEvent.Type.PRODUCT_CREATED, List.of(savedProduct.getId()), List.of());
         return new ProductResponse.CreateResponse(savedProduct.getId(), "제품이 성공적으로 등록되었습니다.");
     }
 
@@ -66,24 +152,147 @@ public class ProductService {
             throw new BusinessException(ProductErrorCode.UNAUTHORIZED_ACCESS);
         }
 
-        String imageUrl = product.getImage();
+        // 새 이미지는 커밋 이후 비동기로 업로드, 기존 이미지는 업로드가 끝나면 교체/삭제됨
         if (imageFile != null && !imageFile.isEmpty()) {
-            s3Service.deleteFileByUrl(imageUrl);
-            imageUrl = s3Service.uploadFile(imageFile, "products/" + companyId);
+            ProductImageUploadService.PendingUpload upload = imageUploadService.stage(imageFile, "products/" + companyId);
+            imageStorage.release(product.startImageUpload(upload.url()));
+            imageUploadService.uploadAfterCommit(product.getId(), upload);
         }
 
+        boolean ingredientChanged = !Objects.equals(product.getFullIngredient(), request.getFullIngredient());
+
         // 엔티티 내 update 메서드 호출
         product.update(
                 request.getName(),
                 request.getType().name(),
-                imageUrl,
+                product.getImage(),
                 request.getFullIngredient(),
                 request.getStatus()
         );
 
+        // 전성분이 바뀐 경우에만 성분 색인 갱신, 같은 배합의 분석 결과가 있으면 Log에 반영
+        if (ingredientChanged) {
+            ingredientIndex.reindexAfterCommit(product.getId());
+            complianceCache.prefill(product);
+        }
+        changeEvents.publish(companyId, ChangeEvent.Type.PRODUCT_UPDATED, List.of(product.getId()), List.of());
+
         return new ProductResponse.MessageResponse("제품 정보가 성공적으로 수정되었습니다.");
     }
 
+    /**
+     * 이미지 직접 업로드용 presigned PUT URL 발급
+     * 내용 주소 key는 products/{companyId}/cas/ 하위(참조 수로 공유), 그 외는 products/{companyId}/{productId}/ 하위로 제한
+     * 이미지 바이트는 서버를 거치지 않고 클라이언트 -> S3로 바로 전송된다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductResponse.PresignResponse createImageUploadUrl(Long companyId, ProductRequest.PresignRequest request) {
+        validateImage(request.getContentType(), request.getContentLength());
+
+        // sha256이 있으면 내용 주소 key 사용, 이미 저장된 이미지면 업로드 생략
+        String sha256 = request.getSha256() == null ? null : request.getSha256().toLowerCase();
+        String key;
+        String checksum = null;
+        if (sha256 != null) {
+            if (!HashUtils.isSha256Hex(sha256)) {
+                throw new BusinessException(ProductErrorCode.INVALID_IMAGE);
+            }
+            key = imageStorage.contentKey(imagePrefix(companyId), sha256, request.getContentType());
+            if (imageStorage.isUploaded(key)) {
+                return new ProductResponse.PresignResponse(key, null, null, null, true);
+            }
+            checksum = HashUtils.hexToBase64(sha256);
+        } else {
+            // 참조 수가 없는 key라 발급받은 제품에서만 확정할 수 있도록 제품 경로에 발급
+            Long productId = request.getProductId();
+            if (productId == null) {
+                throw new BusinessException(CommonErrorCode.INVALID_PARAMETER, "sha256이 없으면 productId가 필요합니다.");
+            }
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new BusinessException(ProductErrorCode.PRODUCT_NOT_FOUND));
+            if (!product.getCompany().getId().equals(companyId)) {
+                throw new BusinessException(ProductErrorCode.UNAUTHORIZED_ACCESS);
+            }
+            key = s3Service.buildKey(productImagePrefix(companyId, productId), fileName(request.getFileName()));
+        }
+
+        Duration expiresIn = Duration.ofMinutes(presignExpirationMinutes);
+        String uploadUrl = s3Service.presignPutUrl(key, request.getContentType(), request.getContentLength(), checksum, expiresIn);
+
+        return new ProductResponse.PresignResponse(key, uploadUrl, LocalDateTime.now().plus(expiresIn), checksum, false);
+    }
+
+    /**
+     * 직접 업로드한 이미지를 제품에 연결
+     * S3 HEAD 확인은 트랜잭션 밖에서 하고, DB 갱신만 짧은 트랜잭션으로 처리
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductResponse.MessageResponse confirmImage(Long id, Long companyId, ProductRequest.ConfirmImageRequest request) {
+        String key = request.getKey();
+        // 내용 주소 key는 회사 안에서 공유 가능, 그 외 key는 이 제품용으로 발급된 것만 허용
+        boolean allowed = key != null && !key.contains("..") && (imageStorage.isContentAddressed(key)
+                ? imageStorage.isContentKey(imagePrefix(companyId), key)
+                : key.startsWith(productImagePrefix(companyId, id)));
+        if (!allowed) {
+            throw new BusinessException(ProductErrorCode.UNAUTHORIZED_ACCESS);
+        }
+
+        HeadObjectResponse head = s3Service.headObject(key)
+                .orElseThrow(() -> new BusinessException(ProductErrorCode.IMAGE_NOT_UPLOADED));
+        try {
+            validateImage(head.contentType(), head.contentLength());
+        } catch (BusinessException e) {
+            // 다른 제품이 참조 중인 내용 주소 이미지는 남겨둠
+            if (!imageStorage.isReferenced(key)) {
+                s3Service.deleteFileByKey(key);
+            }
+            throw e;
+        }
+
+        String imageUrl = s3Service.toUrl(key);
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new BusinessException(ProductErrorCode.PRODUCT_NOT_FOUND));
+            if (!product.getCompany().getId().equals(companyId)) {
+                throw new BusinessException(ProductErrorCode.UNAUTHORIZED_ACCESS);
+            }
+
+            // 내용 주소 이미지는 참조 추가 (이미 같은 이미지를 쓰고 있으면 그대로)
+            if (imageStorage.isContentAddressed(key)) {
+                if (!imageUrl.equals(product.getImage())) {
+                    imageStorage.acquire(key);
+                }
+                imageStorage.markUploaded(key);
+            }
+            imageStorage.release(product.replaceImage(imageUrl));
+        });
+        imageVariantService.submit(id, imageUrl);
+        changeEvents.publish(companyId, ChangeEvent.Type.PRODUCT_UPDATED, List.of(id), List.of());
+
+        return new ProductResponse.MessageResponse("제품 이미지가 등록되었습니다.");
+    }
+
+    private void validateImage(String contentType, Long contentLength) {
+        if (contentType == null || !ALLOWED_IMAGE_TYPES.contains(contentType.toLowerCase())
+                || contentLength == null || contentLength <= 0 || contentLength > maxImageBytes) {
+            throw new BusinessException(ProductErrorCode.INVALID_IMAGE);
+        }
+    }
+
+    private String imagePrefix(Long companyId) {
+        return "products/" + companyId + "/";
+    }
+
+    private String productImagePrefix(Long companyId, Long productId) {
+        return imagePrefix(companyId) + productId + "/";
+    }
+
+    // 경로 구분자를 빼고 파일 이름만 사용 (key 경로를 바꾸지 못하도록)
+    private static String fileName(String fileName) {
+        if (fileName == null) return null;
+        return fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1);
+    }
+
     // 하나만 삭제
     public ProductResponse.MessageResponse deleteProduct(Long id, Long companyId) {
         Product product = productRepository.findById(id)
@@ -93,12 +302,13 @@ public class ProductService {
             throw new BusinessException(ProductErrorCode.UNAUTHORIZED_ACCESS);
         }
 
-        String imageUrl = product.getImage();
-        if (imageUrl != null && !imageUrl.isEmpty()) {
-            s3Service.deleteFileByUrl(imageUrl);
-        }
+        // 이미지 참조 해제, S3 삭제는 outbox에 기록되어 커밋 이후 처리
+        imageStorage.release(product.allImageFiles());
 
+        ingredientIndex.removeProducts(List.of(product.getId()));
+        similarityIndex.removeAfterCommit(companyId, List.of(product.getId()));
         productRepository.delete(product);
+        changeEvents.publish(companyId, ChangeEvent.Type.PRODUCT_DELETED, List.of(product.getId()), List.of());
         return new ProductResponse.MessageResponse("제품이 삭제되었습니다.");
     }
 
@@ -111,17 +321,19 @@ public class ProductService {
             throw new BusinessException(ProductErrorCode.PRODUCT_NOT_FOUND);
         }
 
+        List<String> imageUrls = new ArrayList<>();
         for (Product p : products) {
             if (!p.getCompany().getId().equals(companyId)) {
                 throw new BusinessException(ProductErrorCode.UNAUTHORIZED_ACCESS);
             }
-            String imageUrl = p.getImage();
-            if (imageUrl != null && !imageUrl.isEmpty()) {
-                s3Service.deleteFileByUrl(imageUrl);
-            }
+            imageUrls.addAll(p.allImageFiles());
         }
 
+        ingredientIndex.removeProducts(ids);
+        similarityIndex.removeAfterCommit(companyId, ids);
         productRepository.deleteAllInBatch(products);
+        imageStorage.release(imageUrls);
+        changeEvents.publish(companyId, ChangeEvent.Type.PRODUCT_DELETED, ids, List.of());
         return new ProductResponse.MessageResponse(products.size() + "개의 제품이 삭제되었습니다.");
     }
 }
@@ -4,26 +4,60 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.io.IOException;
 import java.net.URI;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 public class S3Service {
 
+    // DeleteObjects 한 번에 보낼 수 있는 최대 key 수
+    private static final int DELETE_BATCH_SIZE = 1000;
+
     private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
+    private final S3Presigner s3Presigner;
 
     @Value("${cloud.aws.s3.bucket}")
     private String bucket;
 
+    // 로컬 S3 대체 서버 사용 시 public URL도 해당 주소 기준 (path-style)
+    @Value("${cloud.aws.s3.endpoint:}")
+    private String endpoint;
+
     /**
      * file을 S3에 업로드하고 public URL을 반환
      * 저장 key: {prefix}/{UUID}-{originalFilename}
@@ -33,16 +67,7 @@ public class S3Service {
             throw new IllegalArgumentException("업로드할 파일이 비어있습니다.");
         }
 
-        String original = file.getOriginalFilename();
-        String safeOriginal = (original == null) ? "file" : original.replaceAll("\\s+", "_");
-
-        String key = UUID.randomUUID() + "-" + safeOriginal;
-
-        if (prefix != null && !prefix.isBlank()) {
-            String normalized = prefix.startsWith("/") ? prefix.substring(1) : prefix;
-            normalized = normalized.endsWith("/") ? normalized.substring(0, normalized.length() - 1) : normalized;
-            key = normalized + "/" + key;
-        }
+        String key = buildKey(prefix, file.getOriginalFilename());
 
         try {
             PutObjectRequest putReq = PutObjectRequest.builder()
@@ -57,6 +82,98 @@ public class S3Service {
             throw new RuntimeException("파일 업로드 실패", e);
         }
 
+        return toUrl(key);
+    }
+
+    /**
+     * 로컬 파일을 비동기로 업로드 (큰 파일은 S3AsyncClient 설정에 따라 멀티파트 업로드)
+     * 요청 스레드를 점유하지 않으며, 완료 시점은 반환된 future로 확인
+     */
+    public CompletableFuture<PutObjectResponse> uploadFileAsync(Path file, String key, String contentType) {
+        PutObjectRequest putReq = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .build();
+
+        return s3AsyncClient.putObject(putReq, AsyncRequestBody.fromFile(file));
+    }
+
+    // 서버에서 생성한 작은 파일(썸네일 등) 업로드, public URL 반환
+    public String uploadBytes(String key, byte[] bytes, String contentType) {
+        PutObjectRequest putReq = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .contentLength((long) bytes.length)
+                .build();
+
+        s3Client.putObject(putReq, RequestBody.fromBytes(bytes));
+        return toUrl(key);
+    }
+
+    // 객체 스트림 조회 (호출 측에서 close)
+    public ResponseInputStream<GetObjectResponse> openObject(String key) {
+        return s3Client.getObject(GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build());
+    }
+
+    /**
+     * 클라이언트가 직접 PUT 할 수 있는 presigned URL 발급
+     * content-type, content-length(그리고 checksum이 있으면 SHA-256)가 서명에 포함되므로 다른 파일로는 업로드할 수 없음
+     * @param checksumSha256 base64 SHA-256, null이면 내용 검증 없음
+     */
+    public String presignPutUrl(String key, String contentType, long contentLength, String checksumSha256, Duration expiresIn) {
+        PutObjectRequest putReq = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .checksumSHA256(checksumSha256)
+                .build();
+
+        PutObjectPresignRequest presignReq = PutObjectPresignRequest.builder()
+                .signatureDuration(expiresIn)
+                .putObjectRequest(putReq)
+                .build();
+
+        return s3Presigner.presignPutObject(presignReq).url().toString();
+    }
+
+    // 객체 메타데이터 조회, 없으면 empty
+    public Optional<HeadObjectResponse> headObject(String key) {
+        try {
+            return Optional.of(s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .build()));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) return Optional.empty();
+            throw e;
+        }
+    }
+
+    // 저장 key: {prefix}/{UUID}-{originalFilename}
+    public String buildKey(String prefix, String originalFilename) {
+        String safeOriginal = (originalFilename == null) ? "file" : originalFilename.replaceAll("\\s+", "_");
+
+        String key = UUID.randomUUID() + "-" + safeOriginal;
+
+        if (prefix != null && !prefix.isBlank()) {
+            String normalized = prefix.startsWith("/") ? prefix.substring(1) : prefix;
+            normalized = normalized.endsWith("/") ? normalized.substring(0, normalized.length() - 1) : normalized;
+            key = normalized + "/" + key;
+        }
+        return key;
+    }
+
+    public String toUrl(String key) {
+        if (!endpoint.isBlank()) {
+            String base = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+            return base + "/" + bucket + "/" + key;
+        }
         return "https://" + bucket + ".s3.amazonaws.com/" + key;
     }
 
@@ -72,13 +189,72 @@ public class S3Service {
         s3Client.deleteObject(delReq);
     }
 
+    /**
+     * 여러 URL을 DeleteObjects로 묶어서 삭제 (1000개 단위, 요청들은 병렬로 전송)
+     * 실패한 key는 예외 대신 결과에 담아 반환
+     */
+    public BatchDeleteResult deleteFilesByUrls(Collection<String> fileUrls) {
+        return deleteFilesByKeys(fileUrls.stream().map(this::extractKeyFromUrl).toList());
+    }
+
+    public BatchDeleteResult deleteFilesByKeys(Collection<String> fileKeys) {
+        List<String> keys = new ArrayList<>(new LinkedHashSet<>(fileKeys.stream()
+                .filter(key -> key != null && !key.isBlank())
+                .toList()));
+        if (keys.isEmpty()) {
+            return new BatchDeleteResult(0, Map.of());
+        }
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i += DELETE_BATCH_SIZE) {
+            chunks.add(keys.subList(i, Math.min(i + DELETE_BATCH_SIZE, keys.size())));
+        }
+
+        List<CompletableFuture<DeleteObjectsResponse>> futures = chunks.stream()
+                .map(chunk -> s3AsyncClient.deleteObjects(DeleteObjectsRequest.builder()
+                        .bucket(bucket)
+                        .delete(Delete.builder()
+                                .objects(chunk.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+                                .quiet(true) // 실패한 key만 응답에 포함
+                                .build())
+                        .build()))
+                .toList();
+
+        int deleted = 0;
+        Map<String, String> failures = new LinkedHashMap<>();
+        for (int i = 0; i < futures.size(); i++) {
+            List<String> chunk = chunks.get(i);
+            try {
+                DeleteObjectsResponse response = futures.get(i).join();
+                response.errors().forEach(error -> failures.put(error.key(), error.code() + ": " + error.message()));
+                deleted += chunk.size() - response.errors().size();
+            } catch (Exception e) {
+                // 요청 자체가 실패하면 해당 묶음 전체를 실패로 기록
+                String reason = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+                chunk.forEach(key -> failures.put(key, reason));
+            }
+        }
+        return new BatchDeleteResult(deleted, failures);
+    }
+
+    /**
+     * 일괄 삭제 결과
+     * @param deleted 삭제된 key 수
+     * @param failures 실패한 key -> 사유
+     */
+    public record BatchDeleteResult(int deleted, Map<String, String> failures) {
+        public boolean hasFailures() {
+            return !failures.isEmpty();
+        }
+    }
+
     // URL로 삭제 (DB에 URL 저장하는 경우 편의 메서드)
     public void deleteFileByUrl(String fileUrl) {
         String key = extractKeyFromUrl(fileUrl);
         deleteFileByKey(key);
     }
 
-    private String extractKeyFromUrl(String fileUrl) {
+    public String extractKeyFromUrl(String fileUrl) {
         if (fileUrl == null || fileUrl.isBlank()) return null;
 
         try {
@@ -88,6 +264,11 @@ public class S3Service {
 
             String key = path.startsWith("/") ? path.substring(1) : path;
 
+            // path-style URL이면 버킷 이름 제거
+            if (!endpoint.isBlank() && key.startsWith(bucket + "/")) {
+                key = key.substring(bucket.length() + 1);
+            }
+
             // URL 인코딩된 한글/공백 처리
             return URLDecoder.decode(key, StandardCharsets.UTF_8);
         } catch (Exception e) {
@@ -95,4 +276,4 @@ public class S3Service {
             return fileUrl;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,274 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.domain.ImageObject;
+import com.aivle.cosy.domain.StorageOutbox;
+import com.aivle.cosy.domain.StorageOutbox.Operation;
+import com.aivle.cosy.repository.ImageObjectRepository;
+import com.aivle.cosy.repository.StorageOutboxRepository;
+import com.aivle.cosy.util.HashUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * S3 작업 transactional outbox.
+ * 호출한 트랜잭션 안에서는 storage_outbox에 행만 추가하고, 커밋 이후 relay가 S3 삭제를 수행한다.
+ * 롤백되면 outbox 행도 함께 사라지므로 S3 객체가 DB와 어긋나지 않는다.
+ * relay는 묶음 단위로 처리하며(삭제는 DeleteObjects 한 번), 실패한 작업은 백오프 후 재시도한다.
+ * 내용 주소 이미지 삭제는 원본 key(guard_key)의 image_objects 행을 잠근 채 참조가 없을 때만 수행한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StorageOutboxService {
+    private final StorageOutboxRepository outboxRepository;
+    private final ImageObjectRepository imageObjectRepository;
+    private final S3Service s3Service;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${storage.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${storage.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    // relay가 작업을 점유하는 시간 (처리 중 서버가 죽으면 이후 다시 처리됨)
+    @Value("${storage.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${storage.outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${storage.outbox.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+    private ExecutorService relayExecutor;
+
+    @PostConstruct
+    public void init() {
+        relayExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "storage-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("storage.outbox.backlog", backlog, AtomicLong::get)
+                .description("처리 대기 중인 S3 outbox 작업 수")
+                .register(meterRegistry);
+        Gauge.builder("storage.outbox.dead", dead, AtomicLong::get)
+                .description("최대 재시도 횟수를 넘긴 S3 outbox 작업 수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        relayExecutor.shutdown();
+    }
+
+    /**
+     * URL(또는 key)의 S3 객체 삭제 예약 (호출한 트랜잭션이 커밋되어야 삭제됨)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueDelete(Collection<String> fileUrls) {
+        enqueue(null, fileUrls);
+    }
+
+    /**
+     * 참조 수로 공유되는 내용 주소 이미지(원본 + 변환본) 삭제 예약
+     * relay가 guardKey의 image_objects 행을 잠근 채 참조가 없을 때만 삭제한다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueGuardedDelete(String guardKey, Collection<String> keys) {
+        enqueue(guardKey, keys);
+    }
+
+    private void enqueue(String guardKey, Collection<String> fileUrls) {
+        LocalDateTime now = LocalDateTime.now();
+        int added = 0;
+        for (String url : fileUrls) {
+            String key = s3Service.extractKeyFromUrl(url);
+            if (key == null || key.isBlank()) continue;
+            added += outboxRepository.upsert(Operation.DELETE.name(), key, guardKey,
+                    idempotencyKey(Operation.DELETE, key), now, maxAttempts);
+        }
+        if (added > 0) {
+            wakeUpAfterCommit();
+        }
+    }
+
+    private void wakeUpAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeUp();
+            }
+        });
+    }
+
+    // relay 실행 요청, 이미 대기 중인 실행이 있으면 합쳐짐
+    private void wakeUp() {
+        if (wakeRequested.compareAndSet(false, true)) {
+            relayExecutor.execute(() -> {
+                wakeRequested.set(false);
+                drain();
+            });
+        }
+    }
+
+    // 커밋 직후 실행이 유실되거나 재시도 시각이 된 작업 처리
+    @Scheduled(fixedDelayString = "${storage.outbox.poll-interval-ms:10000}")
+    public void poll() {
+        wakeUp();
+        try {
+            backlog.set(outboxRepository.countByAttemptsLessThan(maxAttempts));
+            dead.set(outboxRepository.countByAttemptsGreaterThanEqual(maxAttempts));
+        } catch (Exception e) {
+            log.warn("S3 outbox backlog 집계 실패: {}", e.getMessage());
+        }
+    }
+
+    private void drain() {
+        try {
+            while (relayBatch() == batchSize) {
+                // 가득 찬 묶음이면 남은 작업이 더 있을 수 있으므로 계속 처리
+            }
+        } catch (Exception e) {
+            log.error("S3 outbox relay 실패", e);
+        }
+    }
+
+    // 한 묶음 처리: 점유(짧은 트랜잭션) -> S3 호출 -> 결과 반영(짧은 트랜잭션)
+    // 일반 삭제는 S3 호출을 트랜잭션 밖에서, 내용 주소 이미지 삭제는 원본 행을 잠근 트랜잭션 안에서 수행
+    private int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<StorageOutbox> claimed = transactionTemplate.execute(status -> {
+            List<StorageOutbox> due = outboxRepository.findDueForUpdate(now, maxAttempts, PageRequest.of(0, batchSize));
+            due.forEach(outbox -> outbox.claim(now.plusSeconds(leaseSeconds)));
+            return due;
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, String> failures = new HashMap<>();
+
+        List<StorageOutbox> guarded = claimed.stream().filter(o -> o.getGuardKey() != null).toList();
+        if (!guarded.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> deleteGuarded(guarded, failures));
+            } catch (Exception e) {
+                guarded.forEach(outbox -> failures.put(outbox.getId(), e.getMessage()));
+            }
+        }
+
+        List<StorageOutbox> deletes = claimed.stream().filter(o -> o.getGuardKey() == null).toList();
+        if (!deletes.isEmpty()) {
+            S3Service.BatchDeleteResult result = s3Service.deleteFilesByKeys(
+                    deletes.stream().map(StorageOutbox::getSourceKey).toList());
+            for (StorageOutbox outbox : deletes) {
+                String error = result.failures().get(outbox.getSourceKey());
+                if (error != null) {
+                    failures.put(outbox.getId(), error);
+                }
+            }
+        }
+
+        List<Long> doneIds = claimed.stream().map(StorageOutbox::getId).filter(id -> !failures.containsKey(id)).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!doneIds.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(doneIds);
+            }
+            for (StorageOutbox outbox : outboxRepository.findAllById(failures.keySet())) {
+                outbox.fail(failures.get(outbox.getId()), LocalDateTime.now().plus(Duration.ofMillis(backoff(outbox.getAttempts() + 1))));
+                if (outbox.getAttempts() >= maxAttempts) {
+                    log.error("S3 outbox 작업 최종 실패 (id={}, {} {}): {}",
+                            outbox.getId(), outbox.getOperation(), outbox.getSourceKey(), outbox.getLastError());
+                }
+            }
+        });
+        if (!failures.isEmpty()) {
+            log.warn("S3 outbox 작업 {}건 실패, 재시도 예정", failures.size());
+        }
+        return claimed.size();
+    }
+
+    /**
+     * 내용 주소 이미지 삭제: 원본 행을 잠그고 여전히 참조가 없는 원본만 변환본과 함께 S3에서 지운 뒤 행도 삭제
+     * 잠금 동안 같은 이미지의 acquire는 대기하므로, 확인 이후 다시 참조되어 올라간 객체를 지우는 일이 없다.
+     * 그 사이 다시 참조되었거나(참조 수 > 0) 이미 다른 작업이 지운(행 없음) 원본의 작업은 그대로 완료 처리한다.
+     */
+    private void deleteGuarded(List<StorageOutbox> guarded, Map<Long, String> failures) {
+        Set<String> guardKeys = new HashSet<>(guarded.stream().map(StorageOutbox::getGuardKey).toList());
+        List<String> unreferenced = imageObjectRepository.lockUnreferenced(guardKeys).stream()
+                .map(ImageObject::getObjectKey).toList();
+        if (unreferenced.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<String>> keysByGuard = new HashMap<>();
+        for (String guardKey : unreferenced) {
+            List<String> keys = new ArrayList<>();
+            keys.add(guardKey);
+            keys.addAll(ImageVariantService.variantKeys(guardKey));
+            keysByGuard.put(guardKey, keys);
+        }
+        S3Service.BatchDeleteResult result = s3Service.deleteFilesByKeys(
+                keysByGuard.values().stream().flatMap(List::stream).toList());
+
+        // 원본/변환본 중 하나라도 실패하면 행을 남겨 재시도
+        Map<String, String> errors = new HashMap<>();
+        keysByGuard.forEach((guardKey, keys) -> keys.stream()
+                .map(key -> result.failures().get(key))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .ifPresent(error -> errors.put(guardKey, error)));
+        List<String> deleted = unreferenced.stream().filter(key -> !errors.containsKey(key)).toList();
+        if (!deleted.isEmpty()) {
+            imageObjectRepository.deleteUnreferenced(deleted);
+        }
+        for (StorageOutbox outbox : guarded) {
+            String error = errors.get(outbox.getGuardKey());
+            if (error != null) {
+                failures.put(outbox.getId(), error);
+            }
+        }
+    }
+
+    private long backoff(int attempt) {
+        long exponential = initialBackoffMs * (1L << Math.min(attempt - 1, 20));
+        return Math.min(exponential, maxBackoffMs);
+    }
+
+    private static String idempotencyKey(Operation operation, String sourceKey) {
+        return HashUtils.sha256Hex(operation.name() + "\n" + sourceKey);
+    }
+}
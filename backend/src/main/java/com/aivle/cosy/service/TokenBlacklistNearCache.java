@@ -0,0 +1,150 @@
+package com.aivle.cosy.service;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis 블랙리스트 앞단의 로컬 캐시.
+ * 블랙리스트에 추가된 jti는 pub/sub으로 모든 노드에 전파되고, 주기적으로 Redis 전체를 다시 읽어 누락분을 보정한다.
+ * 동기화가 끝난 상태(authoritative)에서는 로컬에 없는 jti를 Redis 조회 없이 "블랙리스트 아님"으로 판단한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenBlacklistNearCache implements MessageListener {
+    public static final String BLACKLIST_PREFIX = "blacklist:";
+    public static final String CHANNEL = "blacklist:events";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${blacklist.near-cache.max-entries:100000}")
+    private int maxEntries;
+
+    // jti -> 만료 시각 (epoch ms)
+    private final ConcurrentHashMap<String, Long> entries = new ConcurrentHashMap<>();
+
+    // Redis와 동기화되어 로컬 miss를 그대로 믿을 수 있는 상태인지
+    private volatile boolean authoritative = false;
+
+    @PostConstruct
+    public void subscribe() {
+        // resync보다 먼저 구독해야 스캔 중에 추가된 jti도 놓치지 않음
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 로컬 캐시 조회
+     * @return 블랙리스트 여부, 로컬에서 판단할 수 없으면 null (Redis 조회 필요)
+     */
+    public Boolean lookup(String jti) {
+        Long expiresAt = entries.get(jti);
+        if (expiresAt != null) {
+            if (expiresAt > System.currentTimeMillis()) return true;
+            entries.remove(jti, expiresAt);
+        }
+        return authoritative ? Boolean.FALSE : null;
+    }
+
+    public void remember(String jti, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) return;
+        entries.put(jti, expiresAt);
+        if (entries.size() > maxEntries) {
+            // 용량 초과 시 miss는 Redis로 확인하도록 전환 (다음 resync에서 복구)
+            authoritative = false;
+        }
+    }
+
+    // 다른 노드에 블랙리스트 추가를 알림
+    public void publish(String jti, long expiresAt) {
+        redisTemplate.convertAndSend(CHANNEL, jti + ":" + expiresAt);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int idx = body.lastIndexOf(':');
+        if (idx <= 0) return;
+
+        try {
+            remember(body.substring(0, idx), Long.parseLong(body.substring(idx + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("잘못된 블랙리스트 이벤트: {}", body);
+        }
+    }
+
+    /**
+     * Redis의 블랙리스트 전체를 읽어 로컬 캐시에 병합하고, 만료된 항목을 정리
+     * pub/sub 메시지가 유실된 경우(재연결 등)에도 이 주기 안에 다시 맞춰진다.
+     */
+    @Scheduled(fixedDelayString = "${blacklist.near-cache.resync-interval-ms:30000}")
+    public void resync() {
+        long now = System.currentTimeMillis();
+        try {
+            List<String> keys = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(BLACKLIST_PREFIX + "*").count(1000).build();
+            try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    keys.add(cursor.next());
+                    if (keys.size() == 1000) {
+                        mergeFromRedis(keys, now);
+                        keys.clear();
+                    }
+                }
+            }
+            mergeFromRedis(keys, now);
+
+            entries.values().removeIf(expiresAt -> expiresAt <= now);
+            authoritative = entries.size() <= maxEntries;
+        } catch (Exception e) {
+            // Redis 장애 시에는 기존 로컬 상태로 계속 응답 (장애 중에는 새 블랙리스트 추가도 불가능)
+            log.warn("블랙리스트 로컬 캐시 동기화 실패: {}", e.getMessage());
+        }
+    }
+
+    private void mergeFromRedis(List<String> keys, long now) {
+        if (keys.isEmpty()) return;
+
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        for (int i = 0; i < keys.size(); i++) {
+            String jti = keys.get(i).substring(BLACKLIST_PREFIX.length());
+            Long expiresAt = parseExpiresAt(values == null ? null : values.get(i));
+            if (expiresAt == null) {
+                // 만료 시각이 없는 값은 TTL로 보정
+                Long ttl = redisTemplate.getExpire(keys.get(i), TimeUnit.MILLISECONDS);
+                if (ttl == null || ttl <= 0) continue;
+                expiresAt = now + ttl;
+            }
+            if (expiresAt > now) {
+                entries.put(jti, expiresAt);
+            }
+        }
+    }
+
+    static Long parseExpiresAt(String value) {
+        if (value == null) return null;
+        try {
+            long parsed = Long.parseLong(value);
+            // 예전 형식("1")은 만료 시각이 아니므로 무시
+            return parsed > 1 ? parsed : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.aivle.cosy.service;
 
+import static com.aivle.cosy.service.TokenBlacklistNearCache.BLACKLIST_PREFIX;
+
 import com.aivle.cosy.security.JwtTokenProvider;
 import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
@@ -9,10 +11,9 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 public class TokenBlacklistService {
-    private static final String BLACKLIST_PREFIX = "blacklist:";
-
     private final StringRedisTemplate redisTemplate;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenBlacklistNearCache nearCache;
 
 
     /**
@@ -24,17 +25,36 @@ public class TokenBlacklistService {
         String jti = jwtTokenProvider.extractJti(token);
         if (jti == null || expirationMs < 0) return;
 
+        // 값에는 만료 시각을 저장해서 다른 노드가 resync 할 때 TTL 조회 없이 쓸 수 있게 함
+        long expiresAt = System.currentTimeMillis() + expirationMs;
+        nearCache.remember(jti, expiresAt);
+
         String key = BLACKLIST_PREFIX + jti;
-        redisTemplate.opsForValue().set(key, "1", expirationMs, TimeUnit.MILLISECONDS);
+        redisTemplate.opsForValue().set(key, String.valueOf(expiresAt), expirationMs, TimeUnit.MILLISECONDS);
+        nearCache.publish(jti, expiresAt);
     }
 
     // 토큰이 블랙리스트에 있는지 확인
     public boolean isBlacklisted(String token) {
-        String jti = jwtTokenProvider.extractJti(token);
+        return isJtiBlacklisted(jwtTokenProvider.extractJti(token));
+    }
+
+    // 이미 파싱된 토큰의 jti로 블랙리스트 확인
+    public boolean isJtiBlacklisted(String jti) {
         if (jti == null) return false;
 
-        String key = BLACKLIST_PREFIX + jti;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+        // 대부분의 요청은 로컬 캐시에서 끝남
+        Boolean cached = nearCache.lookup(jti);
+        if (cached != null) return cached;
+
+        String value = redisTemplate.opsForValue().get(BLACKLIST_PREFIX + jti);
+        if (value == null) return false;
+
+        Long expiresAt = TokenBlacklistNearCache.parseExpiresAt(value);
+        if (expiresAt != null) {
+            nearCache.remember(jti, expiresAt);
+        }
+        return true;
     }
 
     public void invalidateSession(String accessToken, String refreshToken) {
@@ -0,0 +1,41 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.domain.User;
+import com.aivle.cosy.dto.UserAuthInfo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * 유저별 토큰 세대(User.tokenGeneration) 관리.
+ * 토큰에는 발급 시점의 세대가 들어가고, 현재 세대보다 낮은 토큰은 모두 무효로 처리한다.
+ * 세대는 가입/무효화 시각(ms) 이상으로 잡히므로 같은 이메일의 이전 계정 토큰은 새 계정의 세대보다 낮다.
+ * 현재 세대는 UserAuthCache에서 읽고, 변경 시 캐시를 비운다.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenGenerationService {
+    // 탈퇴한 유저는 어떤 토큰도 통과하지 못하도록 최대값으로 취급
+    private static final long REVOKED = Long.MAX_VALUE;
+
+    private final UserAuthCache userAuthCache;
+
+    // 토큰의 세대가 현재 세대 이상인지 확인
+    public boolean isCurrent(String email, long tokenGeneration) {
+        return email != null && tokenGeneration >= currentGeneration(email);
+    }
+
+    public long currentGeneration(String email) {
+        return userAuthCache.getUser(email)
+                .map(UserAuthInfo::tokenGeneration)
+                .orElse(REVOKED);
+    }
+
+    /**
+     * 해당 유저의 모든 세션(access/refresh token)을 무효화
+     * 세대 증가는 호출한 트랜잭션과 함께 커밋되고, 캐시는 커밋 이후에 비워진다.
+     */
+    public void revokeAll(User user) {
+        user.increaseTokenGeneration();
+        userAuthCache.evict(user.getEmail());
+    }
+}
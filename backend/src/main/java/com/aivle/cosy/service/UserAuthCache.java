@@ -0,0 +1,252 @@
+package com.aivle.cosy.service;
+
+import com.aivle.cosy.dto.UserAuthInfo;
+import com.aivle.cosy.repository.CompanyRepository;
+import com.aivle.cosy.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 인증에 쓰이는 유저/회사 조회 캐시 (로컬 -> Redis -> DB 순서로 조회).
+ * email -> UserAuthInfo, domain -> companyId 를 캐시하고,
+ * 유저 정보가 바뀌면 커밋 이후 Redis 키를 지우고 pub/sub으로 모든 노드의 로컬 캐시를 비운다.
+ * 무효화 직전에 DB에서 읽은 이전 값이 무효화 이후에 캐시되지 않도록,
+ * Redis에는 짧은 무효화 표시(tombstone)를 남겨 그동안의 저장을 막고 로컬은 무효화 횟수를 비교한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserAuthCache implements MessageListener {
+    public static final String CHANNEL = "user-cache:events";
+    private static final String USER_KEY_PREFIX = "user-auth:";
+    private static final String DOMAIN_KEY_PREFIX = "company-domain:";
+    private static final String EVICTED_SUFFIX = ":evicted";
+    // 로컬 캐시가 가득 찼을 때 제거 후보로 살펴볼 항목 수
+    private static final int EVICTION_SAMPLES = 8;
+
+    // KEYS[1]=유저 키, KEYS[2]=무효화 표시, ARGV[1]=표시 유지 ms
+    private static final RedisScript<Long> EVICT = RedisScript.of("""
+            redis.call('SET', KEYS[2], '1', 'PX', ARGV[1])
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    // 무효화 표시가 있으면 저장하지 않음 (무효화 이전에 읽은 값일 수 있음)
+    // KEYS[1]=유저 키, KEYS[2]=무효화 표시, ARGV[1]=TTL ms, ARGV[2..]=필드/값
+    private static final RedisScript<Long> WRITE_IF_NOT_EVICTED = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[2]) == 1 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private final UserRepository userRepository;
+    private final CompanyRepository companyRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${user-cache.local-ttl-ms:60000}")
+    private long localTtlMs;
+
+    @Value("${user-cache.redis-ttl-ms:600000}")
+    private long redisTtlMs;
+
+    @Value("${user-cache.max-entries:100000}")
+    private int maxEntries;
+
+    // 무효화와 동시에 진행 중이던 DB 조회가 끝날 만큼만 유지
+    @Value("${user-cache.evict-tombstone-ms:5000}")
+    private long evictTombstoneMs;
+
+    // value가 null이면 "존재하지 않음"을 캐시한 것 (로컬에만 저장)
+    private record Entry<T>(T value, long loadedAt) {
+    }
+
+    private final ConcurrentHashMap<String, Entry<UserAuthInfo>> users = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Entry<Long>> companyIds = new ConcurrentHashMap<>();
+    // 로컬 유저 캐시 무효화 횟수 (조회 중에 무효화가 있었으면 조회 결과를 로컬에 캐시하지 않음)
+    private final AtomicLong userEvictions = new AtomicLong();
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    public Optional<UserAuthInfo> getUser(String email) {
+        long now = System.currentTimeMillis();
+        Entry<UserAuthInfo> cached = users.get(email);
+        if (cached != null && now - cached.loadedAt() < localTtlMs) {
+            return Optional.ofNullable(cached.value());
+        }
+
+        long evictions = userEvictions.get();
+        UserAuthInfo info = readUserFromRedis(email);
+        if (info == null) {
+            info = userRepository.findAuthInfoByEmail(email).orElse(null);
+            if (info != null) {
+                writeUserToRedis(info);
+            }
+        }
+        if (userEvictions.get() == evictions) {
+            putLocal(users, email, new Entry<>(info, now));
+        }
+        return Optional.ofNullable(info);
+    }
+
+    // 회사 정보는 거의 바뀌지 않으므로 TTL로만 갱신
+    public Optional<Long> getCompanyIdByDomain(String domain) {
+        long now = System.currentTimeMillis();
+        Entry<Long> cached = companyIds.get(domain);
+        if (cached != null && now - cached.loadedAt() < localTtlMs) {
+            return Optional.ofNullable(cached.value());
+        }
+
+        String key = DOMAIN_KEY_PREFIX + domain;
+        Long companyId = null;
+        try {
+            String value = redisTemplate.opsForValue().get(key);
+            if (value != null) companyId = Long.valueOf(value);
+        } catch (Exception e) {
+            log.warn("회사 캐시 조회 실패: {}", e.getMessage());
+        }
+
+        if (companyId == null) {
+            companyId = companyRepository.findIdByDomain(domain).orElse(null);
+            if (companyId != null) {
+                try {
+                    redisTemplate.opsForValue().set(key, String.valueOf(companyId), redisTtlMs, TimeUnit.MILLISECONDS);
+                } catch (Exception e) {
+                    log.warn("회사 캐시 저장 실패: {}", e.getMessage());
+                }
+            }
+        }
+        putLocal(companyIds, domain, new Entry<>(companyId, now));
+        return Optional.ofNullable(companyId);
+    }
+
+    /**
+     * 유저 캐시 무효화 (비밀번호 변경, 토큰 세대 변경, 가입, 탈퇴)
+     * 트랜잭션 안이라면 커밋 이후에 지워야 다른 노드가 이전 값을 다시 캐시하지 않는다.
+     */
+    public void evict(String email) {
+        removeLocal(email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcastEviction(email);
+                }
+            });
+        } else {
+            broadcastEviction(email);
+        }
+    }
+
+    private void broadcastEviction(String email) {
+        removeLocal(email);
+        try {
+            redisTemplate.execute(EVICT, List.of(USER_KEY_PREFIX + email, USER_KEY_PREFIX + email + EVICTED_SUFFIX),
+                    String.valueOf(evictTombstoneMs));
+            redisTemplate.convertAndSend(CHANNEL, email);
+        } catch (Exception e) {
+            // 전파에 실패해도 다른 노드는 로컬 TTL 이후 다시 읽음
+            log.warn("유저 캐시 무효화 전파 실패: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        removeLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void removeLocal(String email) {
+        userEvictions.incrementAndGet();
+        users.remove(email);
+    }
+
+    private UserAuthInfo readUserFromRedis(String email) {
+        try {
+            Map<Object, Object> hash = redisTemplate.opsForHash().entries(USER_KEY_PREFIX + email);
+            if (hash == null || hash.isEmpty()) return null;
+
+            return new UserAuthInfo(
+                    Long.valueOf((String) hash.get("userId")),
+                    email,
+                    Long.valueOf((String) hash.get("companyId")),
+                    (String) hash.get("companyName"),
+                    (String) hash.get("password"),
+                    Long.parseLong((String) hash.get("gen"))
+            );
+        } catch (Exception e) {
+            log.warn("유저 캐시 조회 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeUserToRedis(UserAuthInfo info) {
+        String key = USER_KEY_PREFIX + info.email();
+        try {
+            redisTemplate.execute(WRITE_IF_NOT_EVICTED, List.of(key, key + EVICTED_SUFFIX),
+                    String.valueOf(redisTtlMs),
+                    "userId", String.valueOf(info.userId()),
+                    "companyId", String.valueOf(info.companyId()),
+                    "companyName", info.companyName(),
+                    "password", info.passwordHash(),
+                    "gen", String.valueOf(info.tokenGeneration()));
+        } catch (Exception e) {
+            log.warn("유저 캐시 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    // 가득 차면 전체를 비우지 않고 일부 표본 중 가장 오래된 항목 하나만 제거 (한꺼번에 Redis/DB로 몰리지 않도록)
+    private <T> void putLocal(ConcurrentHashMap<String, Entry<T>> map, String key, Entry<T> entry) {
+        if (map.size() >= maxEntries && !map.containsKey(key)) {
+            evictOldest(map);
+        }
+        map.put(key, entry);
+    }
+
+    private <T> void evictOldest(ConcurrentHashMap<String, Entry<T>> map) {
+        // 순회 시작 위치를 임의로 건너뛰어 항상 같은 항목만 제거되지 않도록
+        int skip = ThreadLocalRandom.current().nextInt(EVICTION_SAMPLES * 4);
+        String oldestKey = null;
+        long oldestLoadedAt = Long.MAX_VALUE;
+        int sampled = 0;
+        for (Map.Entry<String, Entry<T>> candidate : map.entrySet()) {
+            if (skip-- > 0) continue;
+            if (candidate.getValue().loadedAt() < oldestLoadedAt) {
+                oldestKey = candidate.getKey();
+                oldestLoadedAt = candidate.getValue().loadedAt();
+            }
+            if (++sampled >= EVICTION_SAMPLES) break;
+        }
+        if (oldestKey == null) {
+            // 항목 수가 건너뛴 수보다 적은 경우
+            oldestKey = map.keySet().stream().findFirst().orElse(null);
+        }
+        if (oldestKey != null) {
+            map.remove(oldestKey);
+        }
+    }
+}
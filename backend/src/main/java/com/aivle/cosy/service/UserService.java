@@ -11,11 +11,10 @@ import com.aivle.cosy.exception.UserErrorCode;
 import com.aivle.cosy.exception.SignUpErrorCode;
 import com.aivle.cosy.repository.CompanyRepository;
 import com.aivle.cosy.repository.UserRepository;
-import com.aivle.cosy.security.JwtTokenProvider;
+import com.aivle.cosy.security.AuthRateLimiter;
 import com.aivle.cosy.util.ValidationUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,9 +24,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserService {
     private final UserRepository userRepository;
     private final CompanyRepository companyRepository;
-    private final JwtTokenProvider tokenProvider;
-    private final TokenBlacklistService tokenBlacklistService;
-    private final PasswordEncoder passwordEncoder;
+    private final UserAuthCache userAuthCache;
+    private final PasswordHashService passwordHashService;
+    private final AuthRateLimiter authRateLimiter;
 
     /**
      * 회원 가입 서비스
@@ -44,12 +43,13 @@ public class UserService {
             throw new BusinessException(SignUpErrorCode.INVALID_EMAIL_FORMAT);
         if (!ValidationUtils.isValidPassword(password))
             throw new BusinessException(SignUpErrorCode.INVALID_PASSWORD_FORMAT);
+        authRateLimiter.acquireEmail(email);
         // 2. 이메일 중복 확인 (userRepository)
         validateDuplicatedEmail(email);
         // 3. 이메일에서 도메인 추출 후 회사 조회 (companyRepository)
         Company company = validateCompanyDomain(email);
         // 4. 비밀번호 암호화
-        String encodedPassword = passwordEncoder.encode(password);
+        String encodedPassword = passwordHashService.encode(password);
         // 5. User 생성 및 저장
         User user = new User(company, email, encodedPassword);
         try {
@@ -58,6 +58,8 @@ public class UserService {
             log.error(e.getMessage(),e);
             throw new BusinessException(SignUpErrorCode.SIGN_UP_FAILED, e.getMessage());
         }
+        // 같은 이메일로 탈퇴했던 유저의 세대 캐시가 남아있을 수 있음
+        userAuthCache.evict(email);
 
         // creates response here
         SignUpResponse response = new SignUpResponse();
@@ -67,17 +69,18 @@ public class UserService {
 
 
     /**
-     * 유저 삭제, access token에서 현재 유저의 이메일을 추출한다음 삭제
-     * @param accessToken
+     * 유저 삭제, 인증된 유저의 이메일로 조회한 다음 삭제
+     * 삭제된 유저의 토큰은 세대 조회에 실패하므로 모두 무효화되고,
+     * 같은 이메일로 재가입해도 새 계정의 세대가 가입 시각 기준이라 이전 토큰은 통과하지 못한다.
+     * @param email
      */
     @Transactional
-    public void deleteUser(String accessToken, String refreshToken){
-        String email = tokenProvider.extractEmail(accessToken);
+    public void deleteUser(String email){
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new BusinessException(UserErrorCode.USER_NOT_FOUND));
 
-        tokenBlacklistService.invalidateSession(accessToken,refreshToken);
         userRepository.delete(user);
+        userAuthCache.evict(email);
     }
 
     /**
@@ -98,7 +101,9 @@ public class UserService {
     private Company validateCompanyDomain(String email){
         String domain = email.substring(email.indexOf('@')+1);
 
-        return companyRepository.findByDomain(domain)
+        // id만 캐시에서 찾고, 엔티티는 프록시 참조로 사용 (추가 조회 없음)
+        Long companyId = userAuthCache.getCompanyIdByDomain(domain)
                 .orElseThrow(()-> new BusinessException(SignUpErrorCode.COMPANY_NOT_FOUND));
+        return companyRepository.getReferenceById(companyId);
     }
 }
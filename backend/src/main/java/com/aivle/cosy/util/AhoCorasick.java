@@ -0,0 +1,166 @@
+package com.aivle.cosy.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick 다중 패턴 매칭.
+ * 패턴 전체를 하나의 트라이 + 실패 링크로 컴파일해 본문을 한 번만 훑으며 모든 패턴의 등장 위치를 찾는다.
+ * 빌드가 끝난 automaton은 불변이라 여러 스레드에서 동시에 scan해도 안전하다.
+ */
+public final class AhoCorasick<T> {
+    // 노드별 전이 (문자 오름차순, 이진 탐색)
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    // 실패 링크를 따라가며 만나는 가장 가까운 출력 노드 (-1이면 없음)
+    private final int[] outputLink;
+    private final int[] depth;
+    private final List<List<T>> values;
+
+    @FunctionalInterface
+    public interface MatchHandler<T> {
+        /**
+         * @param start 본문 내 시작 위치 (포함)
+         * @param end 본문 내 끝 위치 (미포함)
+         * @param values 해당 패턴에 등록된 값
+         */
+        void onMatch(int start, int end, List<T> values);
+    }
+
+    private AhoCorasick(char[][] labels, int[][] targets, int[] fail, int[] outputLink, int[] depth, List<List<T>> values) {
+        this.labels = labels;
+        this.targets = targets;
+        this.fail = fail;
+        this.outputLink = outputLink;
+        this.depth = depth;
+        this.values = values;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public int size() {
+        return labels.length;
+    }
+
+    public void scan(CharSequence text, MatchHandler<T> handler) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+
+            int output = values.get(state) != null ? state : outputLink[state];
+            while (output > 0) {
+                handler.onMatch(i + 1 - depth[output], i + 1, values.get(output));
+                output = outputLink[output];
+            }
+        }
+    }
+
+    private int transition(int state, char c) {
+        int index = Arrays.binarySearch(labels[state], c);
+        return index < 0 ? -1 : targets[state][index];
+    }
+
+    public static final class Builder<T> {
+        private final List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        private final List<List<T>> values = new ArrayList<>();
+        private final List<Integer> depth = new ArrayList<>();
+
+        private Builder() {
+            newNode(0);
+        }
+
+        public Builder<T> add(String pattern, T value) {
+            if (pattern == null || pattern.isEmpty()) return this;
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = children.get(node).get(pattern.charAt(i));
+                if (next == null) {
+                    next = newNode(i + 1);
+                    children.get(node).put(pattern.charAt(i), next);
+                }
+                node = next;
+            }
+            if (values.get(node) == null) {
+                values.set(node, new ArrayList<>());
+            }
+            if (!values.get(node).contains(value)) {
+                values.get(node).add(value);
+            }
+            return this;
+        }
+
+        public AhoCorasick<T> build() {
+            int size = children.size();
+            char[][] labels = new char[size][];
+            int[][] targets = new int[size][];
+            for (int node = 0; node < size; node++) {
+                TreeMap<Character, Integer> edges = children.get(node);
+                labels[node] = new char[edges.size()];
+                targets[node] = new int[edges.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                    labels[node][i] = edge.getKey();
+                    targets[node][i] = edge.getValue();
+                    i++;
+                }
+            }
+
+            // BFS로 실패 링크 계산 (부모의 실패 링크에서 같은 문자로 갈 수 있는 가장 긴 접미사)
+            int[] fail = new int[size];
+            int[] outputLink = new int[size];
+            Arrays.fill(outputLink, -1);
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int child : targets[0]) {
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (int i = 0; i < labels[node].length; i++) {
+                    char c = labels[node][i];
+                    int child = targets[node][i];
+                    int f = fail[node];
+                    int next;
+                    while ((next = find(labels, targets, f, c)) < 0 && f != 0) {
+                        f = fail[f];
+                    }
+                    fail[child] = Math.max(next, 0);
+                    queue.add(child);
+                }
+                int f = fail[node];
+                outputLink[node] = values.get(f) != null ? f : outputLink[f];
+            }
+
+            int[] depths = depth.stream().mapToInt(Integer::intValue).toArray();
+            List<List<T>> frozen = new ArrayList<>(size);
+            for (List<T> list : values) {
+                frozen.add(list == null ? null : List.copyOf(list));
+            }
+            return new AhoCorasick<>(labels, targets, fail, outputLink, depths, frozen);
+        }
+
+        private int newNode(int nodeDepth) {
+            children.add(new TreeMap<>());
+            values.add(null);
+            depth.add(nodeDepth);
+            return children.size() - 1;
+        }
+
+        private static int find(char[][] labels, int[][] targets, int state, char c) {
+            int index = Arrays.binarySearch(labels[state], c);
+            return index < 0 ? -1 : targets[state][index];
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.aivle.cosy.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 한 레코드씩 쓰는 CSV 라이터 (RFC 4180, CsvReader와 짝)
+ * 쉼표/따옴표/줄바꿈이 있는 필드만 따옴표로 감싸고 "" 로 이스케이프한다. null은 빈 필드.
+ * 엑셀에서 수식으로 실행되지 않도록 =, +, -, @, 탭, CR로 시작하는 문자열 값은 앞에 ' 를 붙인다 (숫자 값은 그대로).
+ */
+public final class CsvWriter {
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    // 엑셀에서 한글이 깨지지 않도록 파일 맨 앞에 UTF-8 BOM
+    public void writeBom() throws IOException {
+        writer.write('\uFEFF');
+    }
+
+    public void writeRecord(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] instanceof CharSequence text) {
+                writeField(escapeFormula(text.toString()));
+            } else if (fields[i] != null) {
+                writeField(fields[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    public static String escapeFormula(String value) {
+        return isFormulaStart(value, 0) ? "'" + value : value;
+    }
+
+    // escapeFormula로 붙인 ' 제거 (내보낸 CSV를 다시 가져올 때)
+    public static String unescapeFormula(String value) {
+        return value != null && value.startsWith("'") && isFormulaStart(value, 1) ? value.substring(1) : value;
+    }
+
+    private static boolean isFormulaStart(String value, int index) {
+        if (value == null || value.length() <= index) return false;
+        char c = value.charAt(index);
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
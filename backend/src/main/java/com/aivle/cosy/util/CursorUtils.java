@@ -0,0 +1,43 @@
+package com.aivle.cosy.util;
+
+import com.aivle.cosy.exception.BusinessException;
+import com.aivle.cosy.exception.CommonErrorCode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 키셋(커서) 페이지네이션용 커서 인코딩/디코딩
+ * 커서 형식: base64url("{updDate}|{id}") - 클라이언트는 내용에 의존하지 않고 그대로 돌려주기만 하면 됨
+ */
+public final class CursorUtils {
+
+    private CursorUtils() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public record Cursor(LocalDateTime updDate, Long id) {
+    }
+
+    public static String encode(LocalDateTime updDate, Long id) {
+        if (updDate == null || id == null) return null;
+        String raw = updDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor 이전 페이지 응답의 nextCursor
+     * @return 디코딩된 커서, 첫 페이지(커서 없음)면 null
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, idx)), Long.valueOf(raw.substring(idx + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException(CommonErrorCode.INVALID_CURSOR);
+        }
+    }
+}
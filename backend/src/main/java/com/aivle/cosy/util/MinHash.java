@@ -0,0 +1,102 @@
+package com.aivle.cosy.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash 시그니처와 LSH 밴드 키 유틸.
+ * 두 집합의 시그니처에서 같은 위치 값이 일치할 확률 = Jaccard 유사도.
+ * 시그니처를 rows개씩 band로 묶어 band 하나라도 전부 같으면 후보로 본다 (임계값 약 (1/bands)^(1/rows)).
+ */
+public final class MinHash {
+    // 해시 함수별 seed (고정값이라 서버를 재시작해도 시그니처가 같음)
+    private static final long[] SEEDS = new SplittableRandom(0x5EED_C05EL).longs(512).toArray();
+
+    private MinHash() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * @param tokens 집합 원소 (빈 집합이면 모든 값이 Long.MAX_VALUE)
+     * @param numHashes 시그니처 길이 (최대 512)
+     */
+    public static long[] signature(Collection<String> tokens, int numHashes) {
+        if (numHashes <= 0 || numHashes > SEEDS.length) {
+            throw new IllegalArgumentException("numHashes must be between 1 and " + SEEDS.length);
+        }
+        long[] signature = new long[numHashes];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (String token : tokens) {
+            long base = fnv1a64(token);
+            for (int i = 0; i < numHashes; i++) {
+                long hash = mix64(base ^ SEEDS[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * band별 키 (band 번호를 섞어 서로 다른 band끼리 충돌하지 않게 함)
+     */
+    public static long[] bandKeys(long[] signature, int bands) {
+        int rows = signature.length / bands;
+        if (rows == 0) {
+            throw new IllegalArgumentException("signature is shorter than bands");
+        }
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long key = mix64(band + 1L);
+            for (int row = band * rows; row < (band + 1) * rows; row++) {
+                key = mix64(key ^ signature[row]);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    // 시그니처로 추정한 Jaccard 유사도
+    public static double estimate(long[] a, long[] b) {
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) same++;
+        }
+        return (double) same / a.length;
+    }
+
+    // 정확한 Jaccard 유사도 (후보 검증용)
+    public static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() && b.isEmpty()) return 1.0;
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int intersection = 0;
+        for (String value : smaller) {
+            if (larger.contains(value)) intersection++;
+        }
+        return (double) intersection / (a.size() + b.size() - intersection);
+    }
+
+    private static long fnv1a64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // MurmurHash3 fmix64
+    private static long mix64(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb93fe53b1a87L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
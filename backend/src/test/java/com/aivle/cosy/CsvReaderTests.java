@@ -0,0 +1,45 @@
+package com.aivle.cosy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.aivle.cosy.util.CsvReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CsvReaderTests {
+
+    @Test
+    @DisplayName("CSV - 따옴표 안의 쉼표와 줄바꿈")
+    void testQuotedFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "\uFEFFname,fullIngredient\r\n\"토너\",\"정제수, 글리세린\n나이아신아마이드\"\r\n\"크림 \"\"A\"\"\",\n"));
+
+        assertEquals(List.of("name", "fullIngredient"), reader.next());
+        assertEquals(List.of("토너", "정제수, 글리세린\n나이아신아마이드"), reader.next());
+        assertEquals(List.of("크림 \"A\"", ""), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("CSV - 마지막 줄바꿈이 없어도 마지막 레코드를 읽음")
+    void testLastLineWithoutNewline() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b\nc,d"));
+
+        assertEquals(List.of("a", "b"), reader.next());
+        assertEquals(List.of("c", "d"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("CSV - 닫히지 않은 따옴표")
+    void testUnclosedQuote() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\"a,b\n"));
+
+        assertThrows(IOException.class, reader::next);
+    }
+}
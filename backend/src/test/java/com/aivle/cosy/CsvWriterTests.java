@@ -0,0 +1,53 @@
+package com.aivle.cosy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.aivle.cosy.util.CsvReader;
+import com.aivle.cosy.util.CsvWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CsvWriterTests {
+
+    @Test
+    @DisplayName("CSV 쓰기 - 필요한 필드만 따옴표로 감쌈")
+    void testQuoting() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        writer.writeRecord("토너", "정제수, 글리세린", "크림 \"A\"", null, 1L);
+
+        assertEquals("토너,\"정제수, 글리세린\",\"크림 \"\"A\"\"\",,1\r\n", out.toString());
+    }
+
+    @Test
+    @DisplayName("CSV 쓰기 - 수식으로 시작하는 문자열 앞에 ' (숫자는 그대로)")
+    void testFormulaEscape() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        writer.writeRecord("=HYPERLINK(\"x\")", "+82", "@SUM(A1)", "-크림", "정제수", -1L);
+
+        assertEquals("\"'=HYPERLINK(\"\"x\"\")\",'+82,'@SUM(A1),'-크림,정제수,-1\r\n", out.toString());
+        assertEquals("=HYPERLINK(\"x\")", CsvWriter.unescapeFormula("'=HYPERLINK(\"x\")"));
+        assertEquals("'토너", CsvWriter.unescapeFormula("'토너"));
+    }
+
+    @Test
+    @DisplayName("CSV 쓰기 - CsvReader로 다시 읽으면 같은 값")
+    void testRoundTrip() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        writer.writeBom();
+        writer.writeRecord("name", "fullIngredient");
+        writer.writeRecord("세럼", "정제수\n1,2-헥산다이올\r\n\"나이아신아마이드\"");
+
+        CsvReader reader = new CsvReader(new StringReader(out.toString()));
+        assertEquals(List.of("name", "fullIngredient"), reader.next());
+        assertEquals(List.of("세럼", "정제수\n1,2-헥산다이올\r\n\"나이아신아마이드\""), reader.next());
+        assertNull(reader.next());
+    }
+}
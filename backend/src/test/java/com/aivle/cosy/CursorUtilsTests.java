@@ -0,0 +1,38 @@
+package com.aivle.cosy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.aivle.cosy.exception.BusinessException;
+import com.aivle.cosy.util.CursorUtils;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CursorUtilsTests {
+
+    @Test
+    @DisplayName("커서 - 인코딩 후 디코딩하면 같은 값")
+    void testCursorRoundTrip() {
+        LocalDateTime updDate = LocalDateTime.of(2026, 2, 6, 13, 46, 15, 123456000);
+        String cursor = CursorUtils.encode(updDate, 42L);
+
+        CursorUtils.Cursor decoded = CursorUtils.decode(cursor);
+        assertEquals(updDate, decoded.updDate());
+        assertEquals(42L, decoded.id());
+    }
+
+    @Test
+    @DisplayName("커서 - 비어있으면 첫 페이지")
+    void testCursorEmpty() {
+        assertNull(CursorUtils.decode(null));
+        assertNull(CursorUtils.decode(""));
+    }
+
+    @Test
+    @DisplayName("커서 - 잘못된 값")
+    void testCursorInvalid() {
+        assertThrows(BusinessException.class, () -> CursorUtils.decode("not-a-cursor"));
+    }
+}
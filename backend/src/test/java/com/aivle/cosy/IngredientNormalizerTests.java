@@ -0,0 +1,36 @@
+package com.aivle.cosy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.aivle.cosy.service.IngredientNormalizer;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class IngredientNormalizerTests {
+    private final IngredientNormalizer normalizer = new IngredientNormalizer();
+
+    @Test
+    @DisplayName("전성분 - 구분자, 함량, 한글/영문 동의어 정규화")
+    void testCanonicalize() {
+        List<String> names = normalizer.canonicalize(
+                "전성분: 정제수(Water), 글리세린; Niacinamide 2% · 부틸렌 글라이콜\n1,2-Hexanediol, Parfum, 향료");
+
+        assertEquals(List.of("water", "glycerin", "niacinamide", "butylene glycol", "1,2-hexanediol", "fragrance"), names);
+    }
+
+    @Test
+    @DisplayName("전성분 - 괄호 안 쉼표는 나누지 않음")
+    void testParenthesesKeepComma() {
+        List<String> names = normalizer.canonicalize("Sodium Hyaluronate, Fragrance (Limonene, Linalool), Squalane");
+
+        assertEquals(List.of("sodium hyaluronate", "fragrance", "squalane"), names);
+    }
+
+    @Test
+    @DisplayName("전성분 - 사전에 없는 성분은 정규화한 이름 그대로")
+    void testUnknownIngredient() {
+        assertEquals("madecassoside", normalizer.resolve(" *Madecassoside. "));
+        assertEquals(List.of(), normalizer.canonicalize("  "));
+    }
+}
@@ -0,0 +1,109 @@
+package com.aivle.cosy;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.aivle.cosy.service.IngredientRuleSet;
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 카탈로그 규모 전성분 사전 검사 처리량 측정
+ * EU 규칙 파일 전체(약 5천 건 + 이명)를 컴파일하고, 전성분 30개짜리 제품 10만 개를 검사한다.
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+public class IngredientPrescreenBenchmark {
+    private static final Path RULES_DIR = Paths.get("src/main/resources/ingredient/rules/EU");
+    private static final int PRODUCTS = 100_000;
+    private static final int INGREDIENTS_PER_PRODUCT = 30;
+    private static final int WARMUP = 10_000;
+
+    private static final String[] COMMON = {
+            "정제수", "글리세린", "부틸렌글라이콜", "나이아신아마이드", "1,2-헥산다이올", "향료", "Water", "Glycerin",
+            "Butylene Glycol", "Dimethicone", "Sodium Hyaluronate", "Panthenol", "Allantoin", "Tocopherol",
+            "Caprylic/Capric Triglyceride", "Cetearyl Alcohol", "Carbomer", "Xanthan Gum", "Citric Acid"
+    };
+
+    @Test
+    @DisplayName("사전 검사 - 제품 10만 개 스캔")
+    void scanCatalog() throws Exception {
+        long compileStarted = System.nanoTime();
+        IngredientRuleSet ruleSet = load();
+        long compileMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - compileStarted);
+
+        List<String> catalog = catalog();
+        for (int i = 0; i < WARMUP; i++) {
+            ruleSet.screen(catalog.get(i % catalog.size()));
+        }
+
+        long[] latencies = new long[catalog.size()];
+        int flagged = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < catalog.size(); i++) {
+            long t = System.nanoTime();
+            if (!ruleSet.screen(catalog.get(i)).hits().isEmpty()) flagged++;
+            latencies[i] = System.nanoTime() - t;
+        }
+        long totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        Arrays.sort(latencies);
+
+        System.out.printf("rules=%d, compile=%dms, products=%d, total=%dms, p50=%dus, p99=%dus, flagged=%d%n",
+                ruleSet.ruleCount(), compileMs, catalog.size(), totalMs,
+                TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length / 2]),
+                TimeUnit.NANOSECONDS.toMicros(latencies[(int) (latencies.length * 0.99)]), flagged);
+        assertTrue(flagged > 0);
+    }
+
+    private static IngredientRuleSet load() throws Exception {
+        List<IngredientRuleSet.Rule> rules = new ArrayList<>();
+        Map<IngredientRuleSet.Rule, List<String>> aliases = new HashMap<>();
+        try (Stream<Path> files = Files.list(RULES_DIR)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".txt")).toList()) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    IngredientRuleSet.parse(reader, rules, aliases);
+                }
+            }
+        }
+        return IngredientRuleSet.compile(rules, aliases);
+    }
+
+    // 흔한 성분 위주, 제품 20개 중 하나 꼴로 규칙 원료를 섞음
+    private static List<String> catalog() throws Exception {
+        List<IngredientRuleSet.Rule> rules = new ArrayList<>();
+        try (Stream<Path> files = Files.list(RULES_DIR)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".txt")).toList()) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    IngredientRuleSet.parse(reader, rules, new HashMap<>());
+                }
+            }
+        }
+
+        Random random = new Random(42);
+        List<String> catalog = new ArrayList<>(PRODUCTS);
+        for (int p = 0; p < PRODUCTS; p++) {
+            List<String> names = new ArrayList<>(INGREDIENTS_PER_PRODUCT);
+            for (int i = 0; i < INGREDIENTS_PER_PRODUCT; i++) {
+                names.add(COMMON[random.nextInt(COMMON.length)] + (random.nextInt(4) == 0 ? " 1%" : ""));
+            }
+            if (p % 20 == 0) {
+                names.set(random.nextInt(names.size()), rules.get(random.nextInt(rules.size())).englishName());
+            }
+            catalog.add(String.join(", ", names));
+        }
+        return catalog;
+    }
+}
@@ -0,0 +1,80 @@
+package com.aivle.cosy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.aivle.cosy.domain.Log;
+import com.aivle.cosy.service.IngredientRuleSet;
+import com.aivle.cosy.service.IngredientRuleSet.Category;
+import com.aivle.cosy.service.IngredientRuleSet.Rule;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class IngredientRuleSetTests {
+    private static final String RULES = """
+            [레코드 1]
+              구분: 금지
+              표준명: 수은
+              영문명: Mercury
+              CASNO: 7439-97-6
+
+            [레코드 2]
+              구분: 한도
+              표준명: 코코트라이모늄클로라이드
+              영문명: Cocotrimonium Chloride
+              이명: Coconut Trimethylammonium Chloride, Coco Alkyl Trimethyl, Chlorides
+
+            [레코드 3]
+              구분: 한도/금지
+              표준명: 살리실릭애씨드
+              영문명: Salicylic Acid
+
+            [레코드 4]
+              구분: 금지
+              표준명: 니켈시트레이트
+              영문명: Nickel citrate
+              이명: Citric acid, nickel salt, Ethanol, 2-Methoxy, Acetate
+            """;
+
+    private IngredientRuleSet ruleSet() throws Exception {
+        List<Rule> rules = new ArrayList<>();
+        Map<Rule, List<String>> aliases = new HashMap<>();
+        IngredientRuleSet.parse(new BufferedReader(new StringReader(RULES)), rules, aliases);
+        return IngredientRuleSet.compile(rules, aliases);
+    }
+
+    @Test
+    @DisplayName("사전 검사 - 금지 원료가 있으면 HIGH")
+    void testProhibited() throws Exception {
+        IngredientRuleSet.Result result = ruleSet().screen("정제수, 글리세린, MERCURY 0.001%, 향료");
+
+        assertEquals(Log.ApprovalStatus.HIGH, result.status());
+        assertEquals("수은", result.cautiousIngredient());
+    }
+
+    @Test
+    @DisplayName("사전 검사 - 한도 원료만 있으면 MEDIUM, 이명과 한글 띄어쓰기도 매칭")
+    void testLimitedByAlias() throws Exception {
+        IngredientRuleSet.Result result = ruleSet().screen(
+                "Water, Coconut Trimethylammonium Chloride, 살리실릭 애씨드(Salicylic Acid)");
+
+        assertEquals(Log.ApprovalStatus.MEDIUM, result.status());
+        assertEquals(List.of(Category.LIMITED, Category.LIMITED_OR_PROHIBITED),
+                result.hits().stream().map(Rule::category).toList());
+    }
+
+    @Test
+    @DisplayName("사전 검사 - 성분명 일부만 겹치거나 CAS식 이명 조각인 경우는 매칭하지 않음")
+    void testWholeIngredientOnly() throws Exception {
+        IngredientRuleSet.Result result = ruleSet().screen(
+                "Sodium Chlorides Blend, Mercury Free Extract, Water, Citric Acid, Ethanol");
+
+        assertEquals(Log.ApprovalStatus.LOW, result.status());
+        assertEquals("없음", result.cautiousIngredient());
+    }
+}
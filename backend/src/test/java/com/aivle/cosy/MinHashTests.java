@@ -0,0 +1,66 @@
+package com.aivle.cosy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.aivle.cosy.util.MinHash;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MinHashTests {
+
+    private static Set<String> ingredients(int from, int to) {
+        Set<String> names = new HashSet<>();
+        for (int i = from; i < to; i++) {
+            names.add("ingredient-" + i);
+        }
+        return names;
+    }
+
+    @Test
+    @DisplayName("MinHash - 같은 집합은 순서와 관계없이 같은 시그니처")
+    void testSameSetSameSignature() {
+        long[] a = MinHash.signature(List.of("water", "glycerin", "niacinamide"), 100);
+        long[] b = MinHash.signature(List.of("niacinamide", "water", "glycerin"), 100);
+
+        assertArrayEquals(a, b);
+        assertArrayEquals(MinHash.bandKeys(a, 20), MinHash.bandKeys(b, 20));
+    }
+
+    @Test
+    @DisplayName("MinHash - 추정 유사도가 실제 Jaccard와 근사")
+    void testEstimateApproximatesJaccard() {
+        // 30개 중 27개 공유: Jaccard = 27 / 33
+        Set<String> a = ingredients(0, 30);
+        Set<String> b = ingredients(3, 33);
+        double exact = MinHash.jaccard(a, b);
+
+        double estimate = MinHash.estimate(MinHash.signature(a, 256), MinHash.signature(b, 256));
+
+        assertEquals(27.0 / 33, exact, 1e-9);
+        assertEquals(exact, estimate, 0.1);
+    }
+
+    @Test
+    @DisplayName("LSH - 성분 한두 개만 다른 배합은 band 키가 하나 이상 겹침")
+    void testNearDuplicateSharesBand() {
+        long[] a = MinHash.bandKeys(MinHash.signature(ingredients(0, 30), 100), 20);
+        long[] b = MinHash.bandKeys(MinHash.signature(ingredients(1, 31), 100), 20);
+        long[] unrelated = MinHash.bandKeys(MinHash.signature(ingredients(100, 130), 100), 20);
+
+        assertTrue(sharesBand(a, b));
+        assertFalse(sharesBand(a, unrelated));
+    }
+
+    private static boolean sharesBand(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) return true;
+        }
+        return false;
+    }
+}
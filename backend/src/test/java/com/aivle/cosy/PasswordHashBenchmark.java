@@ -0,0 +1,130 @@
+package com.aivle.cosy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.aivle.cosy.exception.BusinessException;
+import com.aivle.cosy.service.PasswordHashService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * 로그인 폭주 상황에서 로그인/일반 API의 p99 지연시간 비교
+ * 요청 스레드에서 직접 BCrypt를 돌리는 경우와 PasswordHashService를 거치는 경우를 같은 부하로 측정한다.
+ * 일반 API도 CPU를 쓰는 작업(직렬화 흉내로 SHA-256 반복)이라 해싱과 CPU를 두고 경쟁하며,
+ * 일반 요청이 요청 스레드를 얻기까지 기다린 시간(대기 p99)도 함께 출력한다.
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+public class PasswordHashBenchmark {
+    private static final int REQUEST_THREADS = 50;   // Tomcat 워커 스레드 흉내
+    private static final int LOGIN_REQUESTS = 400;
+    private static final int OTHER_REQUESTS = 400;
+    private static final int OTHER_WORK_ROUNDS = 100; // 일반 API의 응답 직렬화 등 CPU 작업 흉내 (16KB SHA-256 반복, 수 ms)
+    private static final byte[] OTHER_PAYLOAD = new byte[16 * 1024];
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(10);
+    private final String stored = encoder.encode("Phoenix&Fire92");
+
+    @Test
+    @DisplayName("로그인 폭주 - 요청 스레드에서 직접 해싱")
+    void loginStormOnRequestThreads() throws Exception {
+        Result result = runStorm(raw -> encoder.matches(raw, stored));
+        result.print("direct");
+        assertEquals(OTHER_REQUESTS, result.other.size());
+    }
+
+    @Test
+    @DisplayName("로그인 폭주 - 전용 해싱 실행기 사용")
+    void loginStormOnBoundedExecutor() throws Exception {
+        PasswordHashService hashService = new PasswordHashService(encoder, 0, 64, 3000);
+        try {
+            Result result = runStorm(raw -> hashService.matches(raw, stored));
+            result.print("bounded");
+            assertEquals(OTHER_REQUESTS, result.other.size());
+        } finally {
+            hashService.shutdown();
+        }
+    }
+
+    private Result runStorm(Predicate<String> login) throws InterruptedException {
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        List<Long> loginLatencies = Collections.synchronizedList(new ArrayList<>());
+        List<Long> otherLatencies = Collections.synchronizedList(new ArrayList<>());
+        List<Long> otherWaits = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicLong sink = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(LOGIN_REQUESTS + OTHER_REQUESTS);
+
+        // 로그인과 일반 요청을 섞어서 동시에 밀어넣음
+        for (int i = 0; i < LOGIN_REQUESTS + OTHER_REQUESTS; i++) {
+            boolean isLogin = i % 2 == 0;
+            long submittedAt = System.nanoTime();
+            requestThreads.execute(() -> {
+                try {
+                    if (isLogin) {
+                        try {
+                            login.test("Phoenix&Fire92");
+                        } catch (BusinessException e) {
+                            rejected.incrementAndGet();
+                        }
+                        loginLatencies.add(System.nanoTime() - submittedAt);
+                    } else {
+                        otherWaits.add(System.nanoTime() - submittedAt);
+                        sink.addAndGet(cpuWork());
+                        otherLatencies.add(System.nanoTime() - submittedAt);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.MINUTES), "요청이 시간 안에 끝나지 않았습니다.");
+        requestThreads.shutdownNow();
+        return new Result(loginLatencies, otherLatencies, otherWaits, rejected.get());
+    }
+
+    // JIT가 없애지 못하도록 결과를 돌려줌
+    private static long cpuWork() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = new byte[0];
+            for (int i = 0; i < OTHER_WORK_ROUNDS; i++) {
+                digest.update(OTHER_PAYLOAD);
+                hash = digest.digest(hash);
+            }
+            return hash[0];
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Result(List<Long> login, List<Long> other, List<Long> otherWait, int rejected) {
+        void print(String mode) {
+            System.out.printf("[%s] login p99=%dms, non-login p99=%dms (thread wait p99=%dms), rejected logins=%d%n",
+                    mode, p99(login), p99(other), p99(otherWait), rejected);
+        }
+
+        private static long p99(List<Long> latencies) {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            int idx = (int) Math.ceil(sorted.size() * 0.99) - 1;
+            return TimeUnit.NANOSECONDS.toMillis(sorted.get(Math.max(idx, 0)));
+        }
+    }
+}
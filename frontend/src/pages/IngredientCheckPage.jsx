@@ -774,6 +774,8 @@ export default function IngredientCheckPage({
                             ingredientStatus: finalStatus || "HIGH",
                             cautiousIngredient: details.map(d => d.ingredient).join(", ").slice(0, 255) || "없음",
                             ingredientLaw: details.map(d => `${d.ingredient}: ${d.regulation}`).join("\n").slice(0, 500) || "제한 규제 없음",
+                            // 분석한 전성분 (그 사이 제품 전성분이 바뀌었으면 서버가 배합 캐시에 저장하지 않음)
+                            fullIngredient: ingredients,
 
                               marketingStatus: null,
                               marketingLaw: null